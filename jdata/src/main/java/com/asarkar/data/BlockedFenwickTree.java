@@ -0,0 +1,167 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+
+/**
+ * A cache-conscious Fenwick Tree implementation for very large trees. It supports the
+ * same operations as {@link FenwickTree}, but lays the data out in two levels.
+ * <p>
+ * The values are split into blocks of 64 consecutive elements, 256 bytes, or 4 cache lines,
+ * and every block stores the prefix sums of its own elements. The sums of the blocks are kept
+ * in a {@link FenwickTree} that is 64 times smaller than the values, so the power-of-2
+ * strides of a query or an update jump across far fewer cache lines.
+ * <p>
+ * A query reads one in-block prefix sum, and does a {@code O(log(n / 64))} walk over the
+ * block tree. An update rewrites at most 64 contiguous in-block prefix sums, which is a
+ * sequential and vectorizable loop, and then does a {@code O(log(n / 64))} walk.
+ * Reading a single value, and thus {@link #set(int, int)}, takes constant time plus one
+ * update. Construction from a given array runs in linear time.
+ */
+public final class BlockedFenwickTree {
+  private static final int BLOCK_BITS = 6;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final int size;
+
+  // prefix[k] is the sum of the values from the start of the block of k, to k, zero-based.
+  private final int[] prefix;
+  private final FenwickTree blocks;
+
+  /**
+   * Creates an empty Fenwick Tree of size {@code size + 1}.
+   *
+   * @param size size of the tree, zero-based
+   * @throws IllegalArgumentException if {@code size} is negative
+   */
+  public BlockedFenwickTree(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative");
+    }
+    this.size = size + 1;
+    this.prefix = new int[size];
+    this.blocks = new FenwickTree(numBlocks(size));
+  }
+
+  /**
+   * Constructs a Fenwick tree with an initial set of values. The size of the tree
+   * is one greater than the length of the array; the 0-th element is unused.
+   *
+   * @param values initial values for building a Fenwick tree
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public BlockedFenwickTree(int[] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+
+    size = values.length + 1;
+    prefix = values.clone();
+    int[] blockSums = new int[numBlocks(values.length)];
+    for (int k = 0; k < prefix.length; k++) {
+      if ((k & (BLOCK_SIZE - 1)) != 0) {
+        prefix[k] += prefix[k - 1];
+      }
+      blockSums[k >>> BLOCK_BITS] = prefix[k];
+    }
+    blocks = new FenwickTree(blockSums);
+  }
+
+  private static int numBlocks(int n) {
+    return (n + BLOCK_SIZE - 1) >>> BLOCK_BITS;
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [1, i]}.
+   *
+   * @param i end index of the interval, inclusive
+   * @return the sum of the closed interval {@code [1, i]}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public int query(int i) {
+    checkIndex(i);
+    return sum(i);
+  }
+
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int i) {
+    if (i < 1) {
+      throw new IllegalArgumentException("index must be positive");
+    }
+    if (i >= size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
+  }
+
+  private int sum(int i) {
+    if (i == 0) {
+      return 0;
+    }
+    int k = i - 1;
+    int block = k >>> BLOCK_BITS;
+    return block == 0 ? prefix[k] : blocks.query(block) + prefix[k];
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code right} is not smaller than the
+   *     size of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public int queryRange(int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    checkIndex(right);
+    return sum(right) - sum(left - 1);
+  }
+
+  /**
+   * Adds {@code val} to the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to add to the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void add(int i, int val) {
+    checkIndex(i);
+    int k = i - 1;
+    int block = k >>> BLOCK_BITS;
+    int end = Math.min(prefix.length, (block + 1) << BLOCK_BITS);
+    for (int j = k; j < end; j++) {
+      prefix[j] += val;
+    }
+    blocks.add(block + 1, val);
+  }
+
+  /**
+   * Sets the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to set at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void set(int i, int val) {
+    checkIndex(i);
+    int k = i - 1;
+    int current = (k & (BLOCK_SIZE - 1)) == 0 ? prefix[k] : prefix[k] - prefix[k - 1];
+    add(i, val - current);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(prefix) + ", " + blocks;
+  }
+}
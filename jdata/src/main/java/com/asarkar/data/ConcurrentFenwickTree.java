@@ -0,0 +1,207 @@
+package com.asarkar.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Fenwick Tree implementation that supports concurrent point updates and sum
+ * range queries without locking. Every node is updated with an atomic add, so concurrent
+ * calls to {@link #add(int, long)} never lose an update.
+ * <p>
+ * The tree may optionally be striped, like {@link java.util.concurrent.atomic.LongAdder}.
+ * Each stripe is a separate copy of the tree, a thread always adds to the same stripe, and
+ * a query sums up all of them. This reduces contention on the nodes close to the root,
+ * which almost every update touches, at the cost of making queries slower by a factor of
+ * the number of stripes.
+ * <p>
+ * Consistency: each node is read and written atomically, but a query reads
+ * {@code O(log n)} nodes one after the other, and is therefore not linearizable with
+ * respect to concurrent updates. A query that runs concurrently with an update may
+ * observe only some of the nodes written by that update. Once all updates have completed,
+ * queries return exact sums.
+ * <p>
+ * All operations run in {@code O(log n)} time, times the number of stripes for queries.
+ * Construction from a given array runs in linear time.
+ */
+public final class ConcurrentFenwickTree {
+
+  // Fibonacci hashing constant, spreads the thread hash codes over the stripes.
+  private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final int size;
+
+  // The stripes are laid out one after the other, stripe k starts at k * size.
+  private final AtomicLongArray tree;
+  private final int stripeMask;
+
+  /**
+   * Creates an empty, unstriped Fenwick Tree of size {@code size + 1}.
+   *
+   * @param size size of the tree, zero-based
+   * @throws IllegalArgumentException if {@code size} is negative
+   */
+  public ConcurrentFenwickTree(int size) {
+    this(size, 1);
+  }
+
+  /**
+   * Creates an empty Fenwick Tree of size {@code size + 1}, with at least {@code stripes}
+   * stripes. The number of stripes is rounded up to a power of 2, and a reasonable
+   * choice is the number of available processors.
+   *
+   * @param size size of the tree, zero-based
+   * @param stripes minimum number of stripes
+   * @throws IllegalArgumentException if {@code size} is negative, {@code stripes} is not
+   *     positive, or the stripes would have more than {@link Integer#MAX_VALUE} nodes in total
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public ConcurrentFenwickTree(int size, int stripes) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative");
+    }
+    if (stripes < 1 || stripes > 1 << 30) {
+      throw new IllegalArgumentException("stripes must be in the range [1, 2^30]");
+    }
+    int n = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.size = size + 1;
+    try {
+      this.tree = new AtomicLongArray(Math.multiplyExact(this.size, n));
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("size and stripes are too large for a Fenwick Tree", e);
+    }
+    this.stripeMask = n - 1;
+  }
+
+  /**
+   * Constructs an unstriped Fenwick tree with an initial set of values. The size of the tree
+   * is one greater than the length of the array; the 0-th element is unused.
+   *
+   * @param values initial values for building a Fenwick tree
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public ConcurrentFenwickTree(long[] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+
+    size = values.length + 1;
+    long[] nodes = new long[size];
+    System.arraycopy(values, 0, nodes, 1, values.length);
+
+    for (int i = 1; i < size; i++) {
+      int parent = i + Integer.lowestOneBit(i);
+      if (parent < size) {
+        nodes[parent] += nodes[i];
+      }
+    }
+    tree = new AtomicLongArray(nodes);
+    stripeMask = 0;
+  }
+
+  /**
+   * Returns the number of stripes in this tree.
+   *
+   * @return the number of stripes
+   */
+  public int stripes() {
+    return stripeMask + 1;
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [1, i]}.
+   *
+   * @param i end index of the interval, inclusive
+   * @return the sum of the closed interval {@code [1, i]}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public long query(int i) {
+    checkIndex(i);
+    return sum(i);
+  }
+
+  // The stripes share one array, so an index past the end would touch the next stripe.
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int i) {
+    if (i < 1) {
+      throw new IllegalArgumentException("index must be positive");
+    }
+    if (i >= size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
+  }
+
+  private long sum(int i) {
+    long sum = 0;
+    int j = i;
+    while (j > 0) {
+      sum += node(j);
+      j -= Integer.lowestOneBit(j);
+    }
+    return sum;
+  }
+
+  // Returns the value of node i, summed up over all the stripes.
+  long node(int i) {
+    long sum = 0;
+    for (int offset = 0; offset < tree.length(); offset += size) {
+      sum += tree.get(offset + i);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code right} is not smaller than the
+   *     size of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public long queryRange(int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    checkIndex(right);
+    return sum(right) - sum(left - 1);
+  }
+
+  /**
+   * Atomically adds {@code val} to the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to add to the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void add(int i, long val) {
+    checkIndex(i);
+    int offset = stripe(stripeMask) * size;
+    int j = i;
+    while (j < size) {
+      tree.getAndAdd(offset + j, val);
+      j += Integer.lowestOneBit(j);
+    }
+  }
+
+  // Returns the stripe of the current thread, given the number of stripes minus one.
+  static int stripe(int stripeMask) {
+    if (stripeMask == 0) {
+      return 0;
+    }
+    int h = System.identityHashCode(Thread.currentThread()) * GOLDEN_RATIO;
+    return (h ^ (h >>> 16)) & stripeMask;
+  }
+
+  @Override
+  public String toString() {
+    return tree.toString();
+  }
+}
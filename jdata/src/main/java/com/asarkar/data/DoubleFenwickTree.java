@@ -0,0 +1,158 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+
+/**
+ * A {@code double} specialization of {@link FenwickTree}. The API and the running times
+ * are the same as {@link FenwickTree}, and no operation allocates after construction.
+ * <p>
+ * The sums are subject to the usual floating-point rounding errors; in particular,
+ * {@link #set(int, double)} and {@link #queryRange(int, int)} may not be exact.
+ */
+public final class DoubleFenwickTree {
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final int size;
+
+  private final double[] tree;
+
+  /**
+   * Creates an empty Fenwick Tree of size {@code size + 1}.
+   *
+   * @param size size of the tree, zero-based
+   * @throws IllegalArgumentException if {@code size} is negative
+   */
+  public DoubleFenwickTree(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative");
+    }
+    this.size = size + 1;
+    this.tree = new double[this.size];
+  }
+
+  // Wraps the given nodes, which must already be partial sums, without copying them.
+  DoubleFenwickTree(double[] nodes, int size) {
+    this.size = size;
+    this.tree = nodes;
+  }
+
+  // Returns the backing array of nodes, without copying it.
+  double[] nodes() {
+    return tree;
+  }
+
+  /**
+   * Constructs a Fenwick tree with an initial set of values. The size of the tree
+   * is one greater than the length of the array; the 0-th element is unused.
+   *
+   * @param values initial values for building a Fenwick tree
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public DoubleFenwickTree(double[] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+
+    size = values.length + 1;
+    tree = new double[size];
+    System.arraycopy(values, 0, tree, 1, values.length);
+
+    for (int i = 1; i < size; i++) {
+      int parent = i + Integer.lowestOneBit(i);
+      if (parent < size) {
+        tree[parent] += tree[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [1, i]}.
+   *
+   * @param i end index of the interval, inclusive
+   * @return the sum of the closed interval {@code [1, i]}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public double query(int i) {
+    checkIndex(i);
+    return sum(i);
+  }
+
+  // Without it, a query past the end would fail inside the array, and an add would be lost.
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int i) {
+    if (i < 1) {
+      throw new IllegalArgumentException("index must be positive");
+    }
+    if (i >= size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
+  }
+
+  private double sum(int i) {
+    double sum = 0;
+    int j = i;
+    while (j > 0) {
+      sum += tree[j];
+      j -= Integer.lowestOneBit(j);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code right} is not smaller than the
+   *     size of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public double queryRange(int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    checkIndex(right);
+    return sum(right) - sum(left - 1);
+  }
+
+  /**
+   * Adds {@code val} to the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to add to the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void add(int i, double val) {
+    checkIndex(i);
+    int j = i;
+    while (j < size) {
+      tree[j] += val;
+      j += Integer.lowestOneBit(j);
+    }
+  }
+
+  /**
+   * Sets the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to set at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void set(int i, double val) {
+    add(i, val - queryRange(i, i));
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(tree);
+  }
+}
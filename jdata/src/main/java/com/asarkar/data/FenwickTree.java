@@ -1,6 +1,8 @@
 package com.asarkar.data;
 
 import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
 
 /**
  * A Fenwick Tree implementation that supports point updates and sum range queries.
@@ -11,13 +13,20 @@ import java.util.Arrays;
  * The number of bits in the binary representation of a number n is {@code O(log n)}.
  * Therefore, all operations run in {@code O(log n)} time.
  * Construction from a given array runs in linear time.
+ * <p>
+ * The tree can grow: {@link #append(int)} adds a value at the end in amortized
+ * {@code O(log n)} time, by growing the backing array geometrically, and computing only
+ * the partial sum of the new node.
  */
 public final class FenwickTree {
+  // Batches of queries at least this large are answered in parallel.
+  private static final int PARALLEL_BATCH_SIZE = 1 << 13;
 
   // The size of Fenwick tree, i.e. the number of nodes in it.
-  final int size;
+  int size;
 
-  private final int[] tree;
+  // The nodes at and after size are spare capacity for appending.
+  private int[] tree;
 
   /**
    * Creates an empty Fenwick Tree of size {@code size + 1}.
@@ -33,6 +42,17 @@ public final class FenwickTree {
     this.tree = new int[this.size];
   }
 
+  // Wraps the given nodes, which must already be partial sums, without copying them.
+  FenwickTree(int[] nodes, int size) {
+    this.size = size;
+    this.tree = nodes;
+  }
+
+  // Returns the backing array of nodes, without copying it.
+  int[] nodes() {
+    return tree;
+  }
+
   /**
    * Constructs a Fenwick tree with an initial set of values. The size of the tree
    * is one greater than the length of the array; the 0-th element is unused.
@@ -48,7 +68,11 @@ public final class FenwickTree {
     size = values.length + 1;
     tree = new int[size];
     System.arraycopy(values, 0, tree, 1, values.length);
+    build();
+  }
 
+  // Turns the values in the tree into partial sums, in place.
+  private void build() {
     for (int i = 1; i < size; i++) {
       int parent = i + Integer.lowestOneBit(i);
       if (parent < size) {
@@ -57,19 +81,38 @@ public final class FenwickTree {
     }
   }
 
+  // Inverse of build(), turns the partial sums in the tree back into values, in place.
+  private void unbuild() {
+    for (int i = size - 1; i > 0; i--) {
+      int parent = i + Integer.lowestOneBit(i);
+      if (parent < size) {
+        tree[parent] -= tree[i];
+      }
+    }
+  }
+
   /**
    * Returns the sum of the closed interval {@code [1, i]}.
    *
    * @param i end index of the interval, inclusive
    * @return the sum of the closed interval {@code [1, i]}
-   * @throws IllegalArgumentException if the index {@code i} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
    */
-  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
   public int query(int i) {
+    checkIndex(i);
+    return sum(i);
+  }
+
+  // Checks against the size, not the backing array, whose spare capacity holds no values.
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int i) {
     if (i < 1) {
       throw new IllegalArgumentException("index must be positive");
     }
-    return sum(i);
+    if (i >= size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
   }
 
   private int sum(int i) {
@@ -90,6 +133,8 @@ public final class FenwickTree {
    * @return the sum of the interval {@code [left, right]}
    * @throws IllegalArgumentException if {@code left} is greater than {@code right}
    * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code right} is not smaller than the
+   *     size of the tree
    */
   @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
   public int queryRange(int left, int right) {
@@ -99,21 +144,53 @@ public final class FenwickTree {
     if (left < 1) {
       throw new IllegalArgumentException("left must be positive");
     }
+    checkIndex(right);
     return sum(right) - sum(left - 1);
   }
 
+  /**
+   * Returns the smallest index {@code i} such that the sum of the closed interval
+   * {@code [1, i]} is greater than or equal to {@code k}, or {@code n + 1} if there's no
+   * such index, where {@code n} is the number of values in the tree. When the tree is used
+   * as a frequency table, this is the index of the {@code k}-th smallest element.
+   * <p>
+   * Instead of a binary search over {@link #query(int)}, which runs in {@code O(log^2 n)}
+   * time, this method walks the tree top-down, one power of 2 at a time, and runs in
+   * {@code O(log n)} time.
+   * <p>
+   * The result is only guaranteed to be the smallest such index if all the values in the
+   * tree are non-negative, because otherwise the prefix sums are not monotone. With
+   * negative values, the returned index {@code i} is still either 1, or such that the sum of
+   * the closed interval {@code [1, i - 1]} is smaller than {@code k}, but the sum of
+   * {@code [1, i]} may also be smaller than {@code k}.
+   *
+   * @param k the prefix sum to search for
+   * @return the smallest index whose prefix sum is at least {@code k}, or {@code n + 1}
+   */
+  public int lowerBound(int k) {
+    int pos = 0;
+    int remaining = k;
+    // Invariant: remaining = k - query(pos), and query(pos) < k.
+    for (int step = Integer.highestOneBit(size - 1); step > 0; step >>= 1) {
+      int next = pos + step;
+      if (next < size && tree[next] < remaining) {
+        pos = next;
+        remaining -= tree[next];
+      }
+    }
+    return pos + 1;
+  }
+
   /**
    * Adds {@code val} to the value at index {@code i}.
    *
    * @param i the index
    * @param val value to add to the value at index {@code i}
-   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
    */
-  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
   public void add(int i, int val) {
-    if (i < 1) {
-      throw new IllegalArgumentException("index must be positive");
-    }
+    checkIndex(i);
     int j = i;
     while (j < size) {
       tree[j] += val;
@@ -126,13 +203,232 @@ public final class FenwickTree {
    *
    * @param i the index
    * @param val value to set at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
    */
   public void set(int i, int val) {
     add(i, val - queryRange(i, i));
   }
 
+  /**
+   * Appends {@code val} at the end, growing the tree by one. The backing array grows
+   * geometrically, so this method runs in amortized {@code O(log n)} time.
+   *
+   * @param val value to append
+   * @return the index of the appended value
+   * @throws IllegalStateException if the tree can't grow any further
+   */
+  public int append(int val) {
+    int i = size;
+    if (i == tree.length) {
+      if (i == Integer.MAX_VALUE) {
+        throw new IllegalStateException("tree is full");
+      }
+      grow(i + 1);
+    }
+    // The children of node i are the nodes from i - 1 down to, but excluding,
+    // i - lowestOneBit(i), in steps of their own lowest one bits.
+    int sum = val;
+    int stop = i - Integer.lowestOneBit(i);
+    for (int j = i - 1; j > stop; j -= Integer.lowestOneBit(j)) {
+      sum += tree[j];
+    }
+    tree[i] = sum;
+    size++;
+    return i;
+  }
+
+  /**
+   * Ensures that at least {@code capacity} values can be held without growing the
+   * backing array again.
+   *
+   * @param capacity the desired minimum capacity, zero-based
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public void ensureCapacity(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative");
+    }
+    if (capacity >= tree.length) {
+      grow((int) Math.min(Integer.MAX_VALUE, capacity + 1L));
+    }
+  }
+
+  private void grow(int minLength) {
+    int newLength = (int) Math.min(Integer.MAX_VALUE, Math.max(minLength, 2L * tree.length));
+    tree = Arrays.copyOf(tree, newLength);
+  }
+
+  /**
+   * Returns the sums of the closed intervals {@code [1, i]}, for every index {@code i},
+   * as a zero-based array. Every node stores the sum of the interval between the index
+   * obtained by clearing its lowest one bit, exclusive, and its own index, inclusive, so
+   * each prefix sum is computed from an earlier one with a single addition.
+   * Therefore, this method runs in linear time, instead of {@code O(n log n)} for calling
+   * {@link #query(int)} for every index.
+   *
+   * @return an array whose {@code k}-th element is the sum of {@code [1, k + 1]}
+   */
+  public int[] toPrefixSums() {
+    int[] sums = new int[size - 1];
+    for (int i = 1; i < size; i++) {
+      int j = i - Integer.lowestOneBit(i);
+      sums[i - 1] = j == 0 ? tree[i] : sums[j - 1] + tree[i];
+    }
+    return sums;
+  }
+
+  /**
+   * Returns the values in the tree as a zero-based array. This is the inverse of
+   * {@link #FenwickTree(int[])}, and runs in linear time.
+   *
+   * @return an array whose {@code k}-th element is the value at index {@code k + 1}
+   */
+  public int[] toValues() {
+    int[] values = toPrefixSums();
+    for (int k = values.length - 1; k > 0; k--) {
+      values[k] -= values[k - 1];
+    }
+    return values;
+  }
+
+  /**
+   * Computes the sums of the closed intervals {@code [lefts[k], rights[k]]}, for every
+   * {@code k}, and stores them in {@code sums[k]}. The result is the same as calling
+   * {@link #queryRange(int, int)} for every pair, but when the batch is large compared to
+   * the size of the tree, the prefix sums are materialized in linear time first, and every
+   * query is then answered in constant time. Large batches are split across the common
+   * {@link java.util.concurrent.ForkJoinPool}.
+   * <p>
+   * The tree must not be modified while this method runs.
+   *
+   * @param lefts start indices of the intervals, inclusive
+   * @param rights end indices of the intervals, inclusive
+   * @param sums array to store the sums of the intervals in
+   * @throws IllegalArgumentException if any array is null, or their lengths differ
+   * @throws IllegalArgumentException if any interval is invalid, or any index is not
+   *     smaller than the size of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public void queryRanges(int[] lefts, int[] rights, int[] sums) {
+    if (lefts == null || rights == null || sums == null) {
+      throw new IllegalArgumentException("arrays must not be null");
+    }
+    if (lefts.length != rights.length || lefts.length != sums.length) {
+      throw new IllegalArgumentException("arrays must have the same length");
+    }
+    for (int k = 0; k < lefts.length; k++) {
+      if (lefts[k] > rights[k]) {
+        throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+      }
+      if (lefts[k] < 1 || rights[k] >= size) {
+        throw new IllegalArgumentException(
+            "index out of range: [" + lefts[k] + ", " + rights[k] + "]");
+      }
+    }
+
+    IntUnaryOperator query;
+    // Two walks of at most log(n) nodes per query, versus one linear pass over the tree.
+    int log = Integer.SIZE - Integer.numberOfLeadingZeros(size);
+    if (2L * lefts.length * log > size) {
+      int[] prefixSums = toPrefixSums();
+      query = k -> lefts[k] == 1
+          ? prefixSums[rights[k] - 1]
+          : prefixSums[rights[k] - 1] - prefixSums[lefts[k] - 2];
+    } else {
+      query = k -> sum(rights[k]) - sum(lefts[k] - 1);
+    }
+    IntStream indices = IntStream.range(0, lefts.length);
+    if (lefts.length >= PARALLEL_BATCH_SIZE) {
+      indices = indices.parallel();
+    }
+    indices.forEach(k -> sums[k] = query.applyAsInt(k));
+  }
+
+  /**
+   * Adds {@code deltas[k]} to the value at index {@code indices[k]}, for every {@code k}.
+   * The result is the same as calling {@link #add(int, int)} for every pair, but when
+   * the batch is large compared to the size of the tree, the tree is rebuilt in linear
+   * time instead. Therefore, this method runs in {@code O(min(m log n, n))} time,
+   * where {@code m} is the length of the batch.
+   *
+   * @param indices the indices
+   * @param deltas values to add to the values at the corresponding indices
+   * @throws IllegalArgumentException if either array is null, or their lengths differ
+   * @throws IllegalArgumentException if any index is smaller than 1, or not smaller than the
+   *     size of the tree
+   */
+  public void addAll(int[] indices, int[] deltas) {
+    checkBatch(indices, deltas);
+    if (isRebuildCheaper(indices.length)) {
+      unbuild();
+      for (int k = 0; k < indices.length; k++) {
+        tree[indices[k]] += deltas[k];
+      }
+      build();
+    } else {
+      for (int k = 0; k < indices.length; k++) {
+        add(indices[k], deltas[k]);
+      }
+    }
+  }
+
+  /**
+   * Sets the value at index {@code indices[k]} to {@code values[k]}, for every {@code k}.
+   * If an index occurs more than once, the last value wins. The result is the same as
+   * calling {@link #set(int, int)} for every pair, but when the batch is large compared
+   * to the size of the tree, the tree is rebuilt in linear time instead. Therefore, this
+   * method runs in {@code O(min(m log n, n))} time, where {@code m} is the length of the
+   * batch.
+   *
+   * @param indices the indices
+   * @param values values to set at the corresponding indices
+   * @throws IllegalArgumentException if either array is null, or their lengths differ
+   * @throws IllegalArgumentException if any index is smaller than 1, or not smaller than the
+   *     size of the tree
+   */
+  public void setAll(int[] indices, int[] values) {
+    checkBatch(indices, values);
+    if (isRebuildCheaper(indices.length)) {
+      unbuild();
+      for (int k = 0; k < indices.length; k++) {
+        tree[indices[k]] = values[k];
+      }
+      build();
+    } else {
+      for (int k = 0; k < indices.length; k++) {
+        set(indices[k], values[k]);
+      }
+    }
+  }
+
+  // Validates the whole batch up front, so that a bad index doesn't leave it half applied.
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkBatch(int[] indices, int[] values) {
+    if (indices == null || values == null) {
+      throw new IllegalArgumentException("arrays must not be null");
+    }
+    if (indices.length != values.length) {
+      throw new IllegalArgumentException("arrays must have the same length");
+    }
+    for (int i : indices) {
+      if (i < 1 || i >= size) {
+        throw new IllegalArgumentException("index out of range: " + i);
+      }
+    }
+  }
+
+  /*
+  A point update touches at most log(n) nodes, whereas a rebuild touches every node
+  twice, once to recover the values, and once more to recompute the partial sums.
+   */
+  private boolean isRebuildCheaper(int batchSize) {
+    int log = Integer.SIZE - Integer.numberOfLeadingZeros(size);
+    return (long) batchSize * log > 2L * size;
+  }
+
   @Override
   public String toString() {
-    return Arrays.toString(tree);
+    return Arrays.toString(Arrays.copyOf(tree, size));
   }
 }
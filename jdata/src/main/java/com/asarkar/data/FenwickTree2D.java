@@ -0,0 +1,206 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+
+/**
+ * A two-dimensional Fenwick Tree implementation that supports point updates and sum
+ * rectangle queries. Every row of the tree is a {@link FenwickTree} over the columns,
+ * and every column is a {@link FenwickTree} over the rows, so the node {@code (i, j)}
+ * stores the sum of a rectangle whose height and width are powers of 2.
+ * <p>
+ * The nodes are stored in a single flat array in row-major order.
+ * All operations on a tree with {@code n} rows and {@code m} columns run in
+ * {@code O(log n * log m)} time.
+ * Construction from a given array runs in linear time.
+ */
+public final class FenwickTree2D {
+
+  // The number of rows in the tree, i.e. the number of nodes in a column.
+  final int rows;
+  // The number of columns in the tree, i.e. the number of nodes in a row.
+  final int cols;
+
+  private final int[] tree;
+
+  /**
+   * Creates an empty Fenwick Tree with {@code rows + 1} rows and {@code cols + 1} columns.
+   *
+   * @param rows number of rows in the tree, zero-based
+   * @param cols number of columns in the tree, zero-based
+   * @throws IllegalArgumentException if {@code rows} or {@code cols} is negative, or the
+   *     tree would have more than {@link Integer#MAX_VALUE} nodes
+   */
+  public FenwickTree2D(int rows, int cols) {
+    if (rows < 0 || cols < 0) {
+      throw new IllegalArgumentException("rows and cols must not be negative");
+    }
+    this.rows = rows + 1;
+    this.cols = cols + 1;
+    this.tree = new int[length(this.rows, this.cols)];
+  }
+
+  private static int length(int rows, int cols) {
+    try {
+      return Math.multiplyExact(rows, cols);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("rows and cols are too large for a Fenwick Tree", e);
+    }
+  }
+
+  /**
+   * Constructs a Fenwick tree with an initial set of values. The tree has one more
+   * row and one more column than the array; the 0-th row and column are unused.
+   *
+   * @param values initial values for building a Fenwick tree, must be rectangular
+   * @throws IllegalArgumentException if the given array is null, or not rectangular
+   */
+  public FenwickTree2D(int[][] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    int width = values.length == 0 || values[0] == null ? 0 : values[0].length;
+    for (int[] row : values) {
+      if (row == null || row.length != width) {
+        throw new IllegalArgumentException("values array must be rectangular");
+      }
+    }
+
+    rows = values.length + 1;
+    cols = width + 1;
+    tree = new int[length(rows, cols)];
+    for (int i = 1; i < rows; i++) {
+      System.arraycopy(values[i - 1], 0, tree, i * cols + 1, width);
+    }
+
+    // Build every row as a 1D tree, and then every column.
+    for (int i = 1; i < rows; i++) {
+      int offset = i * cols;
+      for (int j = 1; j < cols; j++) {
+        int parent = j + Integer.lowestOneBit(j);
+        if (parent < cols) {
+          tree[offset + parent] += tree[offset + j];
+        }
+      }
+    }
+    for (int i = 1; i < rows; i++) {
+      int parent = i + Integer.lowestOneBit(i);
+      if (parent < rows) {
+        int offset = i * cols;
+        int parentOffset = parent * cols;
+        for (int j = 1; j < cols; j++) {
+          tree[parentOffset + j] += tree[offset + j];
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the sum of the rectangle {@code [1, row] x [1, col]}.
+   *
+   * @param row end row of the rectangle, inclusive
+   * @param col end column of the rectangle, inclusive
+   * @return the sum of the rectangle {@code [1, row] x [1, col]}
+   * @throws IllegalArgumentException if {@code row} or {@code col} is smaller than 1, or
+   *     not smaller than the number of rows or columns of the tree
+   */
+  public int query(int row, int col) {
+    checkIndex(row, col);
+    return sum(row, col);
+  }
+
+  // The nodes are stored in a flat array, so a column past the end would read the next row.
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int row, int col) {
+    if (row < 1 || col < 1) {
+      throw new IllegalArgumentException("index must be positive");
+    }
+    if (row >= rows || col >= cols) {
+      throw new IllegalArgumentException("index out of range: (" + row + ", " + col + ")");
+    }
+  }
+
+  private int sum(int row, int col) {
+    int sum = 0;
+    for (int i = row; i > 0; i -= Integer.lowestOneBit(i)) {
+      int offset = i * cols;
+      for (int j = col; j > 0; j -= Integer.lowestOneBit(j)) {
+        sum += tree[offset + j];
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of the rectangle {@code [top, bottom] x [left, right]}.
+   *
+   * @param top start row of the rectangle, inclusive
+   * @param left start column of the rectangle, inclusive
+   * @param bottom end row of the rectangle, inclusive
+   * @param right end column of the rectangle, inclusive
+   * @return the sum of the rectangle {@code [top, bottom] x [left, right]}
+   * @throws IllegalArgumentException if {@code top} is greater than {@code bottom}, or
+   *     {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if {@code top} or {@code left} is smaller than 1
+   * @throws IllegalArgumentException if {@code bottom} or {@code right} is not smaller than
+   *     the number of rows or columns of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public int queryRange(int top, int left, int bottom, int right) {
+    if (top > bottom || left > right) {
+      throw new IllegalArgumentException(
+          "invalid range, bottom and right must not be smaller than top and left");
+    }
+    if (top < 1 || left < 1) {
+      throw new IllegalArgumentException("top and left must be positive");
+    }
+    checkIndex(bottom, right);
+    return sum(bottom, right)
+        - sum(top - 1, right)
+        - sum(bottom, left - 1)
+        + sum(top - 1, left - 1);
+  }
+
+  /**
+   * Adds {@code val} to the value at {@code (row, col)}.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @param val value to add to the value at {@code (row, col)}
+   * @throws IllegalArgumentException if {@code row} or {@code col} is smaller than 1, or
+   *     not smaller than the number of rows or columns of the tree
+   */
+  public void add(int row, int col, int val) {
+    checkIndex(row, col);
+    for (int i = row; i < rows; i += Integer.lowestOneBit(i)) {
+      int offset = i * cols;
+      for (int j = col; j < cols; j += Integer.lowestOneBit(j)) {
+        tree[offset + j] += val;
+      }
+    }
+  }
+
+  /**
+   * Sets the value at {@code (row, col)}.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @param val value to set at {@code (row, col)}
+   * @throws IllegalArgumentException if {@code row} or {@code col} is smaller than 1, or
+   *     not smaller than the number of rows or columns of the tree
+   */
+  public void set(int row, int col, int val) {
+    add(row, col, val - queryRange(row, col, row, col));
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(Arrays.toString(Arrays.copyOfRange(tree, i * cols, (i + 1) * cols)));
+    }
+    return sb.append(']').toString();
+  }
+}
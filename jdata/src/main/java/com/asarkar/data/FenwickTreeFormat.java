@@ -0,0 +1,418 @@
+package com.asarkar.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * A compact, versioned binary format for {@link FenwickTree}, {@link LongFenwickTree}, and
+ * {@link DoubleFenwickTree}.
+ * <p>
+ * Every tree starts with a 32-byte little-endian header:
+ * <pre>
+ * offset  size  field
+ *      0     4  magic number, "FWTR"
+ *      4     1  version of the format, currently 1
+ *      5     1  element type: 1 for int, 2 for long, 3 for double
+ *      6     1  encoding: 0 for raw, 1 for delta-varint
+ *      7     1  flags: 1 while a {@link MappedFenwickTree} has the tree open, otherwise 0
+ *      8     8  number of values in the tree
+ *     16     8  length of the payload in bytes
+ *     24     4  CRC32C checksum of the payload
+ *     28     4  reserved, 0
+ * </pre>
+ * The raw encoding stores the nodes of the tree from index 1 on, as they are,
+ * little-endian, and 8-byte aligned relative to the start of the header. Loading it
+ * requires no rebuild, just a bulk copy. The delta-varint encoding, available for
+ * {@code int} and {@code long} trees, stores the differences between consecutive values as
+ * zigzag-encoded variable-length integers, which is much smaller for counters and slowly
+ * changing series. Loading it rebuilds the tree in linear time.
+ * <p>
+ * Trees are written to a {@link WritableByteChannel}, and read from a {@link ByteBuffer},
+ * which may be a {@link java.nio.MappedByteBuffer} over a file. The buffer's position is
+ * advanced past the tree, so several trees may be stored one after the other. The heap
+ * trees are backed by arrays, so reading copies the nodes. A file that starts with a raw
+ * {@code long} tree can instead be opened in place with {@link MappedFenwickTree#open},
+ * without copying the nodes, and the files of a {@link MappedFenwickTree} can be read here
+ * once it's closed.
+ */
+public final class FenwickTreeFormat {
+  // "FWTR"
+  private static final int MAGIC = 0x52545746;
+  private static final byte VERSION = 1;
+  // The header, and the constants below, are shared with MappedFenwickTree.
+  static final int HEADER_SIZE = 32;
+
+  private static final byte TYPE_INT = 1;
+  static final byte TYPE_LONG = 2;
+  private static final byte TYPE_DOUBLE = 3;
+
+  static final byte RAW = 0;
+  private static final byte DELTA_VARINT = 1;
+
+  // Set while a MappedFenwickTree may be writing the nodes.
+  static final byte FLAG_OPEN = 1;
+
+  // Raw payloads are written in chunks of this many bytes.
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  private FenwickTreeFormat() {}
+
+  /**
+   * Writes the given tree to the channel.
+   *
+   * @param tree the tree to write
+   * @param out the channel to write to
+   * @param compress whether to use the delta-varint encoding
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if the tree or the channel is null
+   */
+  public static void write(FenwickTree tree, WritableByteChannel out, boolean compress)
+      throws IOException {
+    checkNotNull(tree, out);
+    int[] nodes = tree.nodes();
+    int n = tree.size - 1;
+    if (compress) {
+      VarintBuffer payload = new VarintBuffer(n);
+      int prev = 0;
+      for (int v : tree.toValues()) {
+        payload.putZigzag((long) v - prev);
+        prev = v;
+      }
+      writeCompressed(out, TYPE_INT, n, payload);
+    } else {
+      writeRaw(out, TYPE_INT, n, Integer.BYTES, (buf, i) -> buf.putInt(nodes[i]));
+    }
+  }
+
+  /**
+   * Writes the given tree to the channel.
+   *
+   * @param tree the tree to write
+   * @param out the channel to write to
+   * @param compress whether to use the delta-varint encoding
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if the tree or the channel is null
+   */
+  public static void write(LongFenwickTree tree, WritableByteChannel out, boolean compress)
+      throws IOException {
+    checkNotNull(tree, out);
+    long[] nodes = tree.nodes();
+    int n = tree.size - 1;
+    if (compress) {
+      VarintBuffer payload = new VarintBuffer(n);
+      long prev = 0;
+      for (long v : tree.toValues()) {
+        payload.putZigzag(v - prev);
+        prev = v;
+      }
+      writeCompressed(out, TYPE_LONG, n, payload);
+    } else {
+      writeRaw(out, TYPE_LONG, n, Long.BYTES, (buf, i) -> buf.putLong(nodes[i]));
+    }
+  }
+
+  /**
+   * Writes the given tree to the channel, using the raw encoding.
+   *
+   * @param tree the tree to write
+   * @param out the channel to write to
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if the tree or the channel is null
+   */
+  public static void write(DoubleFenwickTree tree, WritableByteChannel out) throws IOException {
+    checkNotNull(tree, out);
+    double[] nodes = tree.nodes();
+    writeRaw(out, TYPE_DOUBLE, tree.size - 1, Double.BYTES, (buf, i) -> buf.putDouble(nodes[i]));
+  }
+
+  /**
+   * Reads a {@link FenwickTree} from the buffer, starting at its position.
+   *
+   * @param in the buffer to read from
+   * @return the tree
+   * @throws IllegalArgumentException if the buffer is null, doesn't contain a valid
+   *     {@code int} tree, or the checksum doesn't match
+   * @throws IllegalArgumentException if the tree is open in a {@link MappedFenwickTree}, or
+   *     wasn't closed cleanly
+   */
+  public static FenwickTree readFenwickTree(ByteBuffer in) {
+    Payload tree = readPayload(in, TYPE_INT);
+    ByteBuffer payload = tree.bytes;
+    int n = tree.count;
+    if (tree.encoding == RAW) {
+      int[] nodes = new int[n + 1];
+      payload.asIntBuffer().get(nodes, 1, n);
+      return new FenwickTree(nodes, n + 1);
+    }
+    int[] values = new int[n];
+    int prev = 0;
+    for (int i = 0; i < n; i++) {
+      prev += (int) getZigzag(payload);
+      values[i] = prev;
+    }
+    checkConsumed(payload);
+    return new FenwickTree(values);
+  }
+
+  /**
+   * Reads a {@link LongFenwickTree} from the buffer, starting at its position.
+   *
+   * @param in the buffer to read from
+   * @return the tree
+   * @throws IllegalArgumentException if the buffer is null, doesn't contain a valid
+   *     {@code long} tree, or the checksum doesn't match
+   * @throws IllegalArgumentException if the tree is open in a {@link MappedFenwickTree}, or
+   *     wasn't closed cleanly
+   */
+  public static LongFenwickTree readLongFenwickTree(ByteBuffer in) {
+    Payload tree = readPayload(in, TYPE_LONG);
+    ByteBuffer payload = tree.bytes;
+    int n = tree.count;
+    if (tree.encoding == RAW) {
+      long[] nodes = new long[n + 1];
+      payload.asLongBuffer().get(nodes, 1, n);
+      return new LongFenwickTree(nodes, n + 1);
+    }
+    long[] values = new long[n];
+    long prev = 0;
+    for (int i = 0; i < n; i++) {
+      prev += getZigzag(payload);
+      values[i] = prev;
+    }
+    checkConsumed(payload);
+    return new LongFenwickTree(values);
+  }
+
+  /**
+   * Reads a {@link DoubleFenwickTree} from the buffer, starting at its position.
+   *
+   * @param in the buffer to read from
+   * @return the tree
+   * @throws IllegalArgumentException if the buffer is null, doesn't contain a valid
+   *     {@code double} tree, or the checksum doesn't match
+   * @throws IllegalArgumentException if the tree is open in a {@link MappedFenwickTree}, or
+   *     wasn't closed cleanly
+   */
+  public static DoubleFenwickTree readDoubleFenwickTree(ByteBuffer in) {
+    Payload tree = readPayload(in, TYPE_DOUBLE);
+    int n = tree.count;
+    double[] nodes = new double[n + 1];
+    tree.bytes.asDoubleBuffer().get(nodes, 1, n);
+    return new DoubleFenwickTree(nodes, n + 1);
+  }
+
+  private static void checkNotNull(Object tree, WritableByteChannel out) {
+    if (tree == null || out == null) {
+      throw new IllegalArgumentException("tree and channel must not be null");
+    }
+  }
+
+  @FunctionalInterface
+  private interface NodeWriter {
+    void put(ByteBuffer buf, int i);
+  }
+
+  /*
+  The checksum goes into the header, so the nodes are encoded twice, one chunk at
+  a time: once to compute the checksum, and once more to write them. This avoids
+  holding a second copy of a large tree in memory.
+   */
+  private static void writeRaw(
+      WritableByteChannel out, byte type, int n, int width, NodeWriter writer)
+      throws IOException {
+    long length = (long) n * width;
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("tree is too large");
+    }
+    ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    CRC32C crc = new CRC32C();
+    int perChunk = CHUNK_SIZE / width;
+    for (int i = 1; i <= n; i += perChunk) {
+      fill(chunk, writer, i, Math.min(n, i + perChunk - 1));
+      crc.update(chunk);
+    }
+
+    writeFully(out, header(type, RAW, n, length, (int) crc.getValue()));
+    for (int i = 1; i <= n; i += perChunk) {
+      fill(chunk, writer, i, Math.min(n, i + perChunk - 1));
+      writeFully(out, chunk);
+    }
+  }
+
+  private static void fill(ByteBuffer chunk, NodeWriter writer, int from, int to) {
+    chunk.clear();
+    for (int i = from; i <= to; i++) {
+      writer.put(chunk, i);
+    }
+    chunk.flip();
+  }
+
+  private static void writeCompressed(
+      WritableByteChannel out, byte type, int n, VarintBuffer payload) throws IOException {
+    ByteBuffer buf = ByteBuffer.wrap(payload.bytes, 0, payload.length);
+    CRC32C crc = new CRC32C();
+    crc.update(payload.bytes, 0, payload.length);
+    writeFully(out, header(type, DELTA_VARINT, n, payload.length, (int) crc.getValue()));
+    writeFully(out, buf);
+  }
+
+  private static ByteBuffer header(byte type, byte encoding, long n, long length, int crc) {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    putHeader(header, new Header(type, encoding, (byte) 0, n, length, crc));
+    return header;
+  }
+
+  // Writes the header at the start of the little-endian buffer, without moving its position.
+  static void putHeader(ByteBuffer buf, Header header) {
+    buf.putInt(0, MAGIC)
+        .put(4, VERSION)
+        .put(5, header.type)
+        .put(6, header.encoding)
+        .put(7, header.flags)
+        .putLong(8, header.count)
+        .putLong(16, header.length)
+        .putInt(24, header.crc)
+        .putInt(28, 0);
+  }
+
+  private static void writeFully(WritableByteChannel out, ByteBuffer buf) throws IOException {
+    while (buf.hasRemaining()) {
+      out.write(buf);
+    }
+  }
+
+  record Header(byte type, byte encoding, byte flags, long count, long length, int crc) {}
+
+  /*
+  Validates the fields of the header at the start of the little-endian buffer, but not the
+  payload, which may be larger than a buffer.
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  static Header parseHeader(ByteBuffer buf) {
+    if (buf.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("not a Fenwick Tree");
+    }
+    byte version = buf.get(4);
+    if (version != VERSION) {
+      throw new IllegalArgumentException("unsupported version: " + version);
+    }
+    byte type = buf.get(5);
+    if (type < TYPE_INT || type > TYPE_DOUBLE) {
+      throw new IllegalArgumentException("unsupported element type: " + type);
+    }
+    byte encoding = buf.get(6);
+    if (encoding != RAW && (encoding != DELTA_VARINT || type == TYPE_DOUBLE)) {
+      throw new IllegalArgumentException("unsupported encoding: " + encoding);
+    }
+    byte flags = buf.get(7);
+    if ((flags & ~FLAG_OPEN) != 0) {
+      throw new IllegalArgumentException("unsupported flags: " + flags);
+    }
+    long count = buf.getLong(8);
+    long length = buf.getLong(16);
+    if (count < 0 || length < 0) {
+      throw new IllegalArgumentException("invalid header");
+    }
+    // Every value takes at least one byte, which bounds the count before allocating.
+    if (count > length
+        || encoding == RAW && (length % width(type) != 0 || length / width(type) != count)) {
+      throw new IllegalArgumentException("invalid payload length: " + length);
+    }
+    return new Header(type, encoding, flags, count, length, buf.getInt(24));
+  }
+
+  private record Payload(int count, byte encoding, ByteBuffer bytes) {}
+
+  // Validates the header and the checksum, and returns the little-endian payload.
+  private static Payload readPayload(ByteBuffer in, byte type) {
+    if (in == null) {
+      throw new IllegalArgumentException("buffer must not be null");
+    }
+    if (in.remaining() < HEADER_SIZE) {
+      throw new IllegalArgumentException("buffer is too short for a header");
+    }
+    Header header = parseHeader(in.slice().order(ByteOrder.LITTLE_ENDIAN));
+    if (header.type != type) {
+      throw new IllegalArgumentException("unexpected element type: " + header.type);
+    }
+    if (header.flags != 0) {
+      throw new IllegalArgumentException("tree is open, or wasn't closed cleanly");
+    }
+    // A payload larger than a buffer can only be opened with MappedFenwickTree.
+    if (header.count >= Integer.MAX_VALUE || header.length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("tree is too large for a buffer");
+    }
+    int length = (int) header.length;
+    if (in.remaining() - HEADER_SIZE < length) {
+      throw new IllegalArgumentException("buffer is too short for the payload");
+    }
+
+    ByteBuffer payload = in.slice(in.position() + HEADER_SIZE, length)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    CRC32C actual = new CRC32C();
+    actual.update(payload.duplicate());
+    if ((int) actual.getValue() != header.crc) {
+      throw new IllegalArgumentException("checksum mismatch");
+    }
+    in.position(in.position() + HEADER_SIZE + length);
+    return new Payload((int) header.count, header.encoding, payload);
+  }
+
+  private static int width(byte type) {
+    return type == TYPE_INT ? Integer.BYTES : Long.BYTES;
+  }
+
+  private static long getZigzag(ByteBuffer in) {
+    long v = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      if (!in.hasRemaining()) {
+        throw new IllegalArgumentException("truncated payload");
+      }
+      byte b = in.get();
+      v |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return (v >>> 1) ^ -(v & 1);
+      }
+    }
+    throw new IllegalArgumentException("malformed varint");
+  }
+
+  private static void checkConsumed(ByteBuffer payload) {
+    if (payload.hasRemaining()) {
+      throw new IllegalArgumentException("trailing bytes in payload");
+    }
+  }
+
+  // A growable byte array for zigzag-encoded varints.
+  private static final class VarintBuffer {
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+    private static final int MAX_VARINT_SIZE = 10;
+
+    private byte[] bytes;
+    private int length;
+
+    VarintBuffer(int n) {
+      // Most deltas of counters fit in 1 or 2 bytes.
+      bytes = new byte[(int) Math.min(MAX_LENGTH, Math.max(16, 2L * n))];
+    }
+
+    void putZigzag(long val) {
+      if (length > bytes.length - MAX_VARINT_SIZE) {
+        if (length > MAX_LENGTH - MAX_VARINT_SIZE) {
+          throw new IllegalArgumentException("tree is too large");
+        }
+        bytes = Arrays.copyOf(bytes, (int) Math.min(MAX_LENGTH, 2L * bytes.length));
+      }
+      long v = (val << 1) ^ (val >> 63);
+      while ((v & ~0x7FL) != 0) {
+        bytes[length++] = (byte) ((v & 0x7F) | 0x80);
+        v >>>= 7;
+      }
+      bytes[length++] = (byte) v;
+    }
+  }
+}
@@ -0,0 +1,335 @@
+package com.asarkar.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A singly linked list of {@code int} values, stored as a struct of arrays. Instead of a
+ * separate object per node with a boxed value, like {@link ListNode}, a node is an index
+ * into two parallel arrays that hold the values and the links to the next nodes.
+ * <p>
+ * Nodes are identified by their {@code int} ids, and the end of the list is marked by
+ * {@link #NIL}. The ids of live nodes never change. Removed nodes are kept on an internal
+ * free list, and reused by later insertions, so a list that shrinks and grows again doesn't
+ * allocate. The arrays grow geometrically when the free list is empty.
+ * <p>
+ * A list can be traversed like this:
+ * <pre>{@code
+ * for (int node = list.head(); node != IntLinkedList.NIL; node = list.next(node)) {
+ *   int val = list.value(node);
+ * }
+ * }</pre>
+ * All operations, except the conversions, run in {@code O(1)} time, amortized for insertions.
+ */
+public final class IntLinkedList {
+  /** The id that marks the end of the list, or the absence of a node. */
+  public static final int NIL = -1;
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] vals;
+  // For live nodes, the next node in the list, for free nodes, the next free node.
+  private int[] next;
+  private int head = NIL;
+  private int tail = NIL;
+  private int size;
+  // The first free node, and the number of nodes that have ever been used.
+  private int free = NIL;
+  private int used;
+
+  /** Creates an empty list. */
+  public IntLinkedList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty list that can hold {@code capacity} values without growing.
+   *
+   * @param capacity the initial capacity
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public IntLinkedList(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative");
+    }
+    this.vals = new int[capacity];
+    this.next = new int[capacity];
+  }
+
+  /**
+   * Builds a linked list from the given {@code values}.
+   *
+   * @param values the node values
+   * @return a list of the given values
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public static IntLinkedList fromArray(int[] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    IntLinkedList list = new IntLinkedList(values.length);
+    for (int val : values) {
+      list.addLast(val);
+    }
+    return list;
+  }
+
+  /**
+   * Builds a linked list from the given {@code values}.
+   * The values are used until the first null value.
+   *
+   * @param values the node values
+   * @return a list of the given values
+   */
+  public static IntLinkedList fromIterable(Iterable<Integer> values) {
+    IntLinkedList list = new IntLinkedList();
+    for (Integer val : values) {
+      if (val == null) {
+        break;
+      }
+      list.addLast(val);
+    }
+    return list;
+  }
+
+  /**
+   * Builds a linked list from the values of the given {@link ListNode} list.
+   * The values are used until the first null value.
+   *
+   * @param head the node to start from, may be null
+   * @return a list of the given values
+   */
+  public static IntLinkedList fromListNode(ListNode<Integer> head) {
+    IntLinkedList list = new IntLinkedList();
+    for (ListNode<Integer> node = head; node != null && node.val != null; node = node.next) {
+      list.addLast(node.val);
+    }
+    return list;
+  }
+
+  /**
+   * Returns the number of values in this list.
+   *
+   * @return the number of values in this list
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the id of the first node.
+   *
+   * @return the id of the first node, or {@link #NIL} if this list is empty
+   */
+  public int head() {
+    return head;
+  }
+
+  /**
+   * Returns the id of the last node.
+   *
+   * @return the id of the last node, or {@link #NIL} if this list is empty
+   */
+  public int tail() {
+    return tail;
+  }
+
+  /**
+   * Returns the id of the node after the given node.
+   *
+   * @param node the id of a node in this list
+   * @return the id of the next node, or {@link #NIL} if {@code node} is the last node
+   */
+  public int next(int node) {
+    return next[node];
+  }
+
+  /**
+   * Returns the value of the given node.
+   *
+   * @param node the id of a node in this list
+   * @return the value of the node
+   */
+  public int value(int node) {
+    return vals[node];
+  }
+
+  /**
+   * Sets the value of the given node.
+   *
+   * @param node the id of a node in this list
+   * @param val the new value of the node
+   */
+  public void setValue(int node, int val) {
+    vals[node] = val;
+  }
+
+  /**
+   * Inserts {@code val} at the front of this list.
+   *
+   * @param val the value to insert
+   * @return the id of the new node
+   */
+  public int addFirst(int val) {
+    int node = allocate(val, head);
+    head = node;
+    if (tail == NIL) {
+      tail = node;
+    }
+    return node;
+  }
+
+  /**
+   * Inserts {@code val} at the end of this list.
+   *
+   * @param val the value to insert
+   * @return the id of the new node
+   */
+  public int addLast(int val) {
+    int node = allocate(val, NIL);
+    if (tail == NIL) {
+      head = node;
+    } else {
+      next[tail] = node;
+    }
+    tail = node;
+    return node;
+  }
+
+  /**
+   * Inserts {@code val} after the given node.
+   *
+   * @param node the id of a node in this list
+   * @param val the value to insert
+   * @return the id of the new node
+   */
+  public int insertAfter(int node, int val) {
+    int inserted = allocate(val, next[node]);
+    next[node] = inserted;
+    if (tail == node) {
+      tail = inserted;
+    }
+    return inserted;
+  }
+
+  /**
+   * Removes the first node of this list.
+   *
+   * @return the value of the removed node
+   * @throws IllegalStateException if this list is empty
+   */
+  public int removeFirst() {
+    if (head == NIL) {
+      throw new IllegalStateException("list is empty");
+    }
+    int node = head;
+    head = next[node];
+    if (head == NIL) {
+      tail = NIL;
+    }
+    return release(node);
+  }
+
+  /**
+   * Removes the node after the given node.
+   *
+   * @param node the id of a node in this list
+   * @return the value of the removed node
+   * @throws IllegalStateException if {@code node} is the last node
+   */
+  public int removeAfter(int node) {
+    int removed = next[node];
+    if (removed == NIL) {
+      throw new IllegalStateException("no node after the last node");
+    }
+    next[node] = next[removed];
+    if (tail == removed) {
+      tail = node;
+    }
+    return release(removed);
+  }
+
+  private int allocate(int val, int successor) {
+    int node;
+    if (free == NIL) {
+      if (used == vals.length) {
+        grow();
+      }
+      node = used++;
+    } else {
+      node = free;
+      free = next[node];
+    }
+    vals[node] = val;
+    next[node] = successor;
+    size++;
+    return node;
+  }
+
+  private int release(int node) {
+    next[node] = free;
+    free = node;
+    size--;
+    return vals[node];
+  }
+
+  private void grow() {
+    if (used == Integer.MAX_VALUE) {
+      throw new IllegalStateException("list is full");
+    }
+    int newLength =
+        (int) Math.min(Integer.MAX_VALUE, Math.max(DEFAULT_CAPACITY, 2L * vals.length));
+    vals = Arrays.copyOf(vals, newLength);
+    next = Arrays.copyOf(next, newLength);
+  }
+
+  /**
+   * Traverses the linked list and returns an array containing the node values.
+   *
+   * @return an array containing the node values
+   */
+  public int[] toArray() {
+    int[] values = new int[size];
+    int i = 0;
+    for (int node = head; node != NIL; node = next[node]) {
+      values[i++] = vals[node];
+    }
+    return values;
+  }
+
+  /**
+   * Traverses the linked list and returns a list containing the node values.
+   *
+   * @return a list containing the node values
+   */
+  public List<Integer> toList() {
+    List<Integer> list = new ArrayList<>(size);
+    for (int node = head; node != NIL; node = next[node]) {
+      list.add(vals[node]);
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Converts this list to a {@link ListNode} list with the same values.
+   *
+   * @return the head of the list, or null if this list is empty
+   */
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  public ListNode<Integer> toListNode() {
+    ListNode<Integer> dummy = new ListNode<>(null);
+    ListNode<Integer> prev = dummy;
+    for (int node = head; node != NIL; node = next[node]) {
+      prev.next = new ListNode<>(vals[node]);
+      prev = prev.next;
+    }
+    return dummy.next;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
@@ -0,0 +1,344 @@
+package com.asarkar.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A binary tree of {@code int} values, stored as a struct of arrays. Instead of a separate
+ * object per node with a boxed value, like {@link TreeNode}, a node is an index into three
+ * parallel arrays that hold the values, and the ids of the left and right children.
+ * <p>
+ * Nodes are identified by their {@code int} ids, which are assigned consecutively from 0 as
+ * nodes are added, and an absent child is marked by {@link #NIL}. The trees built by
+ * {@link #fromList(List)}, {@link #fromArray(int[], int)}, and {@link #fromTreeNode(TreeNode)}
+ * number their nodes in level order, so the root is node 0. The arrays grow geometrically
+ * when nodes are added.
+ */
+public final class IntTree {
+  /** The id that marks an absent node. */
+  public static final int NIL = -1;
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] vals;
+  private int[] left;
+  private int[] right;
+  private int size;
+  private int root = NIL;
+
+  /** Creates an empty tree. */
+  public IntTree() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty tree that can hold {@code capacity} nodes without growing.
+   *
+   * @param capacity the initial capacity
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public IntTree(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative");
+    }
+    this.vals = new int[capacity];
+    this.left = new int[capacity];
+    this.right = new int[capacity];
+  }
+
+  /**
+   * Builds a binary tree in level order from the given {@code values}, in the same format
+   * as {@link TreeNode#fromList(List)}. The list may contain null values to indicate absence
+   * of specific subtrees.
+   *
+   * @param values the node values
+   * @return the tree, which is empty if {@code values} were empty
+   * @throws IllegalArgumentException if there are more values than children of the
+   *     preceding nodes
+   */
+  public static IntTree fromList(List<Integer> values) {
+    int n = values.size();
+    IntTree tree = new IntTree(n);
+    if (n == 0 || values.get(0) == null) {
+      return tree;
+    }
+    tree.root = tree.addNode(values.get(0));
+    // Nodes are numbered in level order, so the ids double as the queue of parents.
+    int parent = 0;
+    int i = 1;
+    while (i < n) {
+      checkParent(tree, parent);
+      Integer val = values.get(i++);
+      if (val != null) {
+        tree.setLeft(parent, tree.addNode(val));
+      }
+      val = i < n ? values.get(i) : null;
+      i++;
+      if (val != null) {
+        tree.setRight(parent, tree.addNode(val));
+      }
+      parent++;
+    }
+    return tree;
+  }
+
+  /**
+   * Builds a binary tree in level order from the given {@code values}. This is the same as
+   * {@link #fromList(List)}, except that absent subtrees are indicated by
+   * {@code nullSentinel}.
+   *
+   * @param values the node values
+   * @param nullSentinel the value that indicates absence of a subtree
+   * @return the tree, which is empty if {@code values} were empty
+   * @throws IllegalArgumentException if the given array is null, or if there are more values
+   *     than children of the preceding nodes
+   */
+  public static IntTree fromArray(int[] values, int nullSentinel) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    int n = values.length;
+    IntTree tree = new IntTree(n);
+    if (n == 0 || values[0] == nullSentinel) {
+      return tree;
+    }
+    tree.root = tree.addNode(values[0]);
+    int parent = 0;
+    int i = 1;
+    while (i < n) {
+      checkParent(tree, parent);
+      if (values[i] != nullSentinel) {
+        tree.setLeft(parent, tree.addNode(values[i]));
+      }
+      i++;
+      if (i < n && values[i] != nullSentinel) {
+        tree.setRight(parent, tree.addNode(values[i]));
+      }
+      i++;
+      parent++;
+    }
+    return tree;
+  }
+
+  private static void checkParent(IntTree tree, int parent) {
+    if (parent == tree.size) {
+      throw new IllegalArgumentException("more values than children of the preceding nodes");
+    }
+  }
+
+  /**
+   * Converts the given {@link TreeNode} tree to an {@code IntTree} with the same shape and
+   * values.
+   *
+   * @param root the root of the tree, may be null
+   * @return the tree, which is empty if {@code root} is null
+   * @throws IllegalArgumentException if any node has a null value
+   */
+  public static IntTree fromTreeNode(TreeNode<Integer> root) {
+    IntTree tree = new IntTree();
+    if (root == null) {
+      return tree;
+    }
+    // The node with id k is the k-th element.
+    List<TreeNode<Integer>> nodes = new ArrayList<>();
+    nodes.add(root);
+    tree.root = tree.addNode(valueOf(root));
+    for (int id = 0; id < nodes.size(); id++) {
+      TreeNode<Integer> node = nodes.get(id);
+      if (node.left != null) {
+        tree.setLeft(id, tree.addNode(valueOf(node.left)));
+        nodes.add(node.left);
+      }
+      if (node.right != null) {
+        tree.setRight(id, tree.addNode(valueOf(node.right)));
+        nodes.add(node.right);
+      }
+    }
+    return tree;
+  }
+
+  private static int valueOf(TreeNode<Integer> node) {
+    if (node.val == null) {
+      throw new IllegalArgumentException("node values must not be null");
+    }
+    return node.val;
+  }
+
+  /**
+   * Converts this tree to a {@link TreeNode} tree with the same shape and values.
+   * Nodes that are not reachable from the root are ignored.
+   *
+   * @return the root of the tree, or null if this tree is empty
+   */
+  @SuppressWarnings({"unchecked", "PMD.AvoidInstantiatingObjectsInLoops"})
+  public TreeNode<Integer> toTreeNode() {
+    if (root == NIL) {
+      return null;
+    }
+    TreeNode<Integer>[] nodes = (TreeNode<Integer>[]) new TreeNode<?>[size];
+    for (int id = 0; id < size; id++) {
+      nodes[id] = new TreeNode<>(vals[id]);
+    }
+    for (int id = 0; id < size; id++) {
+      nodes[id].left = left[id] == NIL ? null : nodes[left[id]];
+      nodes[id].right = right[id] == NIL ? null : nodes[right[id]];
+    }
+    return nodes[root];
+  }
+
+  /**
+   * Does a level order traversal of this tree. The output is the same as
+   * {@link TreeNode#levelOrder(TreeNode)}.
+   *
+   * @return a list containing the level order traversal of the node values, with nulls for
+   *     absent children
+   */
+  public List<Integer> levelOrder() {
+    if (root == NIL) {
+      return List.of();
+    }
+    // Every node, and every absent child of a node, is enqueued exactly once.
+    int[] queue = new int[2 * size + 1];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = root;
+    List<Integer> out = new ArrayList<>();
+    while (head < tail) {
+      int id = queue[head++];
+      if (id == NIL) {
+        out.add(null);
+      } else {
+        out.add(vals[id]);
+        queue[tail++] = left[id];
+        queue[tail++] = right[id];
+      }
+    }
+    int end = out.size();
+    while (out.get(end - 1) == null) {
+      end--;
+    }
+    return Collections.unmodifiableList(out.subList(0, end));
+  }
+
+  /**
+   * Returns the number of nodes in this tree, including the nodes that are not reachable
+   * from the root.
+   *
+   * @return the number of nodes
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the id of the root.
+   *
+   * @return the id of the root, or {@link #NIL} if this tree is empty
+   */
+  public int root() {
+    return root;
+  }
+
+  /**
+   * Sets the root of this tree.
+   *
+   * @param node the id of the new root, or {@link #NIL}
+   */
+  public void setRoot(int node) {
+    root = node;
+  }
+
+  /**
+   * Returns the value of the given node.
+   *
+   * @param node the id of a node in this tree
+   * @return the value of the node
+   */
+  public int value(int node) {
+    return vals[node];
+  }
+
+  /**
+   * Sets the value of the given node.
+   *
+   * @param node the id of a node in this tree
+   * @param val the new value of the node
+   */
+  public void setValue(int node, int val) {
+    vals[node] = val;
+  }
+
+  /**
+   * Returns the id of the left child of the given node.
+   *
+   * @param node the id of a node in this tree
+   * @return the id of the left child, or {@link #NIL} if there is none
+   */
+  public int left(int node) {
+    return left[node];
+  }
+
+  /**
+   * Sets the left child of the given node.
+   *
+   * @param node the id of a node in this tree
+   * @param child the id of the new left child, or {@link #NIL}
+   */
+  public void setLeft(int node, int child) {
+    left[node] = child;
+  }
+
+  /**
+   * Returns the id of the right child of the given node.
+   *
+   * @param node the id of a node in this tree
+   * @return the id of the right child, or {@link #NIL} if there is none
+   */
+  public int right(int node) {
+    return right[node];
+  }
+
+  /**
+   * Sets the right child of the given node.
+   *
+   * @param node the id of a node in this tree
+   * @param child the id of the new right child, or {@link #NIL}
+   */
+  public void setRight(int node, int child) {
+    right[node] = child;
+  }
+
+  /**
+   * Adds a node without children to this tree. The node is not linked to any other node.
+   *
+   * @param val the value of the node
+   * @return the id of the new node
+   */
+  public int addNode(int val) {
+    if (size == vals.length) {
+      grow();
+    }
+    vals[size] = val;
+    left[size] = NIL;
+    right[size] = NIL;
+    return size++;
+  }
+
+  private void grow() {
+    if (size == Integer.MAX_VALUE) {
+      throw new IllegalStateException("tree is full");
+    }
+    int newLength =
+        (int) Math.min(Integer.MAX_VALUE, Math.max(DEFAULT_CAPACITY, 2L * vals.length));
+    vals = Arrays.copyOf(vals, newLength);
+    left = Arrays.copyOf(left, newLength);
+    right = Arrays.copyOf(right, newLength);
+  }
+
+  @Override
+  public String toString() {
+    return levelOrder().toString();
+  }
+}
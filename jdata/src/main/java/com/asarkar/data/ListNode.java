@@ -3,17 +3,25 @@ package com.asarkar.data;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Linked list node.
+ * Linked list node. A node is also an {@link Iterable} over the values of the list that
+ * starts at it, so a list can be traversed with a for-each loop, or lazily streamed with
+ * {@link #stream(ListNode)}, without copying it first.
  *
  * @param <T> the type of values stored in this list
  */
 @SuppressFBWarnings(
     value = "PA_PUBLIC_PRIMITIVE_ATTRIBUTE",
     justification = "Consumer needs to be able to set next")
-public class ListNode<T> {
+public class ListNode<T> implements Iterable<T> {
   public T val;
   public ListNode<T> next;
 
@@ -77,4 +85,58 @@ public class ListNode<T> {
     }
     return Collections.unmodifiableList(list);
   }
+
+  /**
+   * Returns an iterator over the values of the list that starts at this node. The list
+   * must not be modified while it is being iterated.
+   *
+   * @return an iterator over the values of the list
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private ListNode<T> node = ListNode.this;
+
+      @Override
+      public boolean hasNext() {
+        return node != null;
+      }
+
+      @Override
+      public T next() {
+        if (node == null) {
+          throw new NoSuchElementException();
+        }
+        T val = node.val;
+        node = node.next;
+        return val;
+      }
+    };
+  }
+
+  /**
+   * Returns an ordered spliterator over the values of the list that starts at this node.
+   * The size of the list is unknown up front, so splitting copies batches of values from
+   * the front of the list into arrays, the same way as
+   * {@link Spliterators#spliteratorUnknownSize(Iterator, int)}.
+   *
+   * @return a spliterator over the values of the list
+   */
+  @Override
+  public Spliterator<T> spliterator() {
+    return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+  }
+
+  /**
+   * Returns a sequential, lazy stream of the values of the linked list. The stream may be
+   * made parallel with {@link Stream#parallel()}. The list must not have a cycle, unless
+   * the stream is short-circuited.
+   *
+   * @param head the node to start from, may be null
+   * @return a stream of the node values
+   * @param <T> the type of values stored in this list
+   */
+  public static <T> Stream<T> stream(ListNode<T> head) {
+    return head == null ? Stream.empty() : StreamSupport.stream(head.spliterator(), false);
+  }
 }
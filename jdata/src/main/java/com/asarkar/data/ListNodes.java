@@ -0,0 +1,272 @@
+package com.asarkar.data;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Algorithms on linked lists of {@link ListNode}s. All of them work in place: they relink the
+ * existing nodes instead of allocating new ones, and apart from the heap of
+ * {@link #mergeK(Collection, Comparator)}, they use {@code O(1)} extra space.
+ * <p>
+ * The lists passed to these methods are modified, and must not be used after the call,
+ * except through the returned head.
+ */
+public final class ListNodes {
+  private ListNodes() {}
+
+  /**
+   * Sorts the linked list using a bottom-up merge sort. The sort is stable, runs in
+   * {@code O(n log n)} time, and uses {@code O(1)} extra space; unlike a top-down merge sort,
+   * it isn't recursive.
+   *
+   * @param head the head of the list, may be null
+   * @param comparator the comparator that determines the order of the values
+   * @return the head of the sorted list
+   * @param <T> the type of values stored in the list
+   */
+  public static <T> ListNode<T> sort(ListNode<T> head, Comparator<? super T> comparator) {
+    int n = 0;
+    for (ListNode<T> node = head; node != null; node = node.next) {
+      n++;
+    }
+
+    ListNode<T> sorted = head;
+    // Merges adjacent runs of length width, which are already sorted, in every pass.
+    for (int width = 1; width < n; width <<= 1) {
+      ListNode<T> rest = sorted;
+      ListNode<T> tail = null;
+      while (rest != null) {
+        ListNode<T> left = rest;
+        ListNode<T> right = split(left, width);
+        rest = split(right, width);
+        ListNode<T> merged = merge(left, right, comparator);
+        if (tail == null) {
+          sorted = merged;
+        } else {
+          tail.next = merged;
+        }
+        tail = last(merged);
+      }
+    }
+    return sorted;
+  }
+
+  // Cuts the list after the first k nodes, and returns the head of the remainder.
+  private static <T> ListNode<T> split(ListNode<T> head, int k) {
+    ListNode<T> node = head;
+    for (int i = 1; node != null && i < k; i++) {
+      node = node.next;
+    }
+    if (node == null) {
+      return null;
+    }
+    ListNode<T> rest = node.next;
+    node.next = null;
+    return rest;
+  }
+
+  private static <T> ListNode<T> last(ListNode<T> head) {
+    ListNode<T> node = head;
+    while (node.next != null) {
+      node = node.next;
+    }
+    return node;
+  }
+
+  /**
+   * Merges two sorted linked lists into one sorted list. The merge is stable; of two equal
+   * values, the one from {@code first} comes first.
+   *
+   * @param first the head of the first sorted list, may be null
+   * @param second the head of the second sorted list, may be null
+   * @param comparator the comparator that determines the order of the values
+   * @return the head of the merged list
+   * @param <T> the type of values stored in the lists
+   */
+  public static <T> ListNode<T> merge(
+      ListNode<T> first, ListNode<T> second, Comparator<? super T> comparator) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    ListNode<T> a = first;
+    ListNode<T> b = second;
+    ListNode<T> head;
+    if (comparator.compare(b.val, a.val) < 0) {
+      head = b;
+      b = b.next;
+    } else {
+      head = a;
+      a = a.next;
+    }
+    ListNode<T> tail = head;
+    while (a != null && b != null) {
+      if (comparator.compare(b.val, a.val) < 0) {
+        tail.next = b;
+        b = b.next;
+      } else {
+        tail.next = a;
+        a = a.next;
+      }
+      tail = tail.next;
+    }
+    tail.next = a == null ? b : a;
+    return head;
+  }
+
+  /**
+   * Merges {@code k} sorted linked lists into one sorted list, using a heap of the current
+   * head of every list. This runs in {@code O(n log k)} time and uses {@code O(k)} extra space.
+   * The merge is not stable across lists.
+   *
+   * @param heads the heads of the sorted lists, any of which may be null
+   * @param comparator the comparator that determines the order of the values
+   * @return the head of the merged list
+   * @param <T> the type of values stored in the lists
+   */
+  public static <T> ListNode<T> mergeK(
+      Collection<ListNode<T>> heads, Comparator<? super T> comparator) {
+    PriorityQueue<ListNode<T>> heap =
+        new PriorityQueue<>(Math.max(1, heads.size()), (a, b) -> comparator.compare(a.val, b.val));
+    for (ListNode<T> head : heads) {
+      if (head != null) {
+        heap.add(head);
+      }
+    }
+
+    ListNode<T> head = null;
+    ListNode<T> tail = null;
+    while (!heap.isEmpty()) {
+      ListNode<T> node = heap.poll();
+      if (node.next != null) {
+        heap.add(node.next);
+      }
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+    }
+    return head;
+  }
+
+  /**
+   * Reverses the linked list.
+   *
+   * @param head the head of the list, may be null
+   * @return the head of the reversed list
+   * @param <T> the type of values stored in the list
+   */
+  public static <T> ListNode<T> reverse(ListNode<T> head) {
+    ListNode<T> prev = null;
+    ListNode<T> node = head;
+    while (node != null) {
+      ListNode<T> next = node.next;
+      node.next = prev;
+      prev = node;
+      node = next;
+    }
+    return prev;
+  }
+
+  /**
+   * Reverses every group of {@code k} consecutive nodes of the linked list. If the length of
+   * the list is not a multiple of {@code k}, the remaining nodes at the end are left in their
+   * original order.
+   *
+   * @param head the head of the list, may be null
+   * @param k the size of the groups
+   * @return the head of the list
+   * @throws IllegalArgumentException if {@code k} is not positive
+   * @param <T> the type of values stored in the list
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public static <T> ListNode<T> reverseInGroups(ListNode<T> head, int k) {
+    if (k < 1) {
+      throw new IllegalArgumentException("k must be positive");
+    }
+    ListNode<T> newHead = head;
+    ListNode<T> prevTail = null;
+    ListNode<T> start = head;
+    while (start != null) {
+      ListNode<T> end = start;
+      int count = 0;
+      while (end != null && count < k) {
+        end = end.next;
+        count++;
+      }
+      if (count < k) {
+        break;
+      }
+
+      // Reverses [start, end), and links the last node of the group to end.
+      ListNode<T> prev = end;
+      ListNode<T> node = start;
+      while (node != end) {
+        ListNode<T> next = node.next;
+        node.next = prev;
+        prev = node;
+        node = next;
+      }
+      if (prevTail == null) {
+        newHead = prev;
+      } else {
+        prevTail.next = prev;
+      }
+      prevTail = start;
+      start = end;
+    }
+    return newHead;
+  }
+
+  /**
+   * Returns whether the linked list has a cycle, using Floyd's algorithm.
+   *
+   * @param head the head of the list, may be null
+   * @return true if the list has a cycle, false otherwise
+   * @param <T> the type of values stored in the list
+   */
+  public static <T> boolean hasCycle(ListNode<T> head) {
+    return meetingPoint(head) != null;
+  }
+
+  /**
+   * Returns the first node of the cycle of the linked list, using Floyd's algorithm.
+   *
+   * @param head the head of the list, may be null
+   * @return the node where the cycle begins, or null if the list has no cycle
+   * @param <T> the type of values stored in the list
+   */
+  public static <T> ListNode<T> cycleStart(ListNode<T> head) {
+    ListNode<T> meet = meetingPoint(head);
+    if (meet == null) {
+      return null;
+    }
+    // The head and the meeting point are the same distance away from the start of the cycle.
+    ListNode<T> a = head;
+    ListNode<T> b = meet;
+    while (a != b) {
+      a = a.next;
+      b = b.next;
+    }
+    return a;
+  }
+
+  // Returns the node where the slow and the fast pointers meet, or null if there's no cycle.
+  private static <T> ListNode<T> meetingPoint(ListNode<T> head) {
+    ListNode<T> slow = head;
+    ListNode<T> fast = head;
+    while (fast != null && fast.next != null) {
+      slow = slow.next;
+      fast = fast.next.next;
+      if (slow == fast) {
+        return slow;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,384 @@
+package com.asarkar.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * A {@code long} Fenwick Tree implementation that lives in a memory-mapped file instead of
+ * on the heap. It supports the same operations as {@link FenwickTree}, but with
+ * {@code long} indices, so the number of nodes is only limited by the size of the file.
+ * <p>
+ * The nodes are written through to the file by the operating system, and since the file
+ * stores the partial sums as they are, a tree reopened with {@link #open(Path)} is ready
+ * to serve queries immediately, without rebuilding it. Call {@link #force()} to make sure
+ * the updates are persisted, for example before a planned shutdown. A tree that wasn't
+ * closed cleanly can still be reopened immediately with {@link Recovery#TRUST}.
+ * <p>
+ * The file is a raw {@code long} tree in the {@link FenwickTreeFormat}, so a closed tree
+ * can be read into a {@link LongFenwickTree}, and a raw {@code long} tree written by
+ * {@link FenwickTreeFormat} can be opened here in place. The nodes are stored as
+ * little-endian {@code long}s after the header. Since a {@link MappedByteBuffer} can't map
+ * more than 2 GiB, the file is mapped in chunks.
+ * <p>
+ * Updates are not atomic with respect to crashes. An update writes {@code O(log n)} nodes
+ * one after the other, and the operating system may write the pages back in any order, so
+ * if the process or the machine crashes during {@link #add(long, long)} or
+ * {@link #set(long, long)}, or before the pages are forced, the file may contain only some
+ * of the nodes written by an update. The partial sums are then inconsistent, and the
+ * queries on the reopened tree would return wrong sums. To detect this, the header is
+ * flagged as open while the tree is open, and {@link #close()} only clears the flag, and
+ * updates the checksum, after the nodes have been forced. {@link FenwickTreeFormat} rejects
+ * a file that is still flagged, and {@link #open(Path, Recovery)} handles it as the given
+ * {@link Recovery} says. Opening a cleanly closed tree doesn't read the nodes, so it doesn't
+ * verify the checksum either.
+ * <p>
+ * Like {@link FenwickTree}, this class is not thread-safe. Closing the tree closes the
+ * underlying file channel; the tree must not be used after that.
+ * All operations run in {@code O(log n)} time.
+ */
+public final class MappedFenwickTree implements Closeable {
+  private static final int HEADER_SIZE = FenwickTreeFormat.HEADER_SIZE;
+  // Nodes are 8-byte aligned, so they never straddle two chunks, and the first chunk
+  // holds the whole header.
+  private static final int CHUNK_BITS = 30;
+  private static final int MIN_CHUNK_BITS = 5;
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final long size;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer[] chunks;
+  private final int chunkBits;
+  private final long chunkMask;
+  // The checksum in the header, which is only recomputed on close if the tree was modified.
+  private int crc;
+  private boolean modified;
+
+  /**
+   * What {@link #open(Path, Recovery)} does with a file that wasn't closed cleanly, that is,
+   * whose header is still flagged as open. The file may also be open in another process, and
+   * must not be opened twice.
+   */
+  public enum Recovery {
+    /** Rejects the file. */
+    REJECT,
+    /**
+     * Recomputes the checksum of the nodes, which takes linear time, and opens the file only
+     * if it matches the checksum written by the last clean close. That means that the tree
+     * wasn't modified after that, for example if the process was killed while it was only
+     * running queries.
+     */
+    VERIFY,
+    /**
+     * Opens the file without reading the nodes. Every array of nodes is a valid Fenwick
+     * Tree, but the updates that were running when the process crashed, or whose pages
+     * weren't written back, may be lost or only partially applied, so the values may differ
+     * from the ones that were added.
+     */
+    TRUST
+  }
+
+  private MappedFenwickTree(FileChannel channel, long size, int chunkBits) throws IOException {
+    this.channel = channel;
+    this.size = size;
+    this.chunkBits = chunkBits;
+    this.chunkMask = (1L << chunkBits) - 1;
+
+    // The 0-th node isn't stored.
+    long length = HEADER_SIZE + (size - 1) * Long.BYTES;
+    long n = (length + chunkMask) >>> chunkBits;
+    if (n > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("size is too large");
+    }
+    this.chunks = new MappedByteBuffer[(int) n];
+    for (int k = 0; k < chunks.length; k++) {
+      long position = (long) k << chunkBits;
+      long chunkSize = Math.min(length - position, 1L << chunkBits);
+      // Mapping a region beyond the end of the file extends it with zeros.
+      chunks[k] = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkSize);
+      chunks[k].order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  /**
+   * Creates a new file, and an empty Fenwick Tree of size {@code size + 1} in it.
+   *
+   * @param path the file to create
+   * @param size size of the tree, zero-based
+   * @return the tree
+   * @throws IOException if the file already exists, or can't be created or mapped
+   * @throws IllegalArgumentException if {@code size} is negative, or too large
+   */
+  public static MappedFenwickTree create(Path path, long size) throws IOException {
+    return create(path, size, CHUNK_BITS);
+  }
+
+  // Visible for testing with small chunks.
+  @SuppressWarnings("PMD.CloseResource")
+  static MappedFenwickTree create(Path path, long size, int chunkBits) throws IOException {
+    if (size < 0 || size >= (Long.MAX_VALUE - HEADER_SIZE) / Long.BYTES) {
+      throw new IllegalArgumentException("size must not be negative, or too large");
+    }
+    checkChunkBits(chunkBits);
+    FileChannel channel = FileChannel.open(
+        path,
+        StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      MappedFenwickTree tree = new MappedFenwickTree(channel, size + 1, chunkBits);
+      // The checksum of the zeros isn't written yet.
+      tree.modified = true;
+      tree.putHeader(FenwickTreeFormat.FLAG_OPEN, 0);
+      return tree;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a Fenwick Tree that was created by {@link #create(Path, long)}, or a file that
+   * starts with a raw {@code long} tree written by {@link FenwickTreeFormat}, and verifies a
+   * file that wasn't closed cleanly as {@link Recovery#VERIFY} describes.
+   *
+   * @param path the file to open
+   * @return the tree
+   * @throws IOException if the file can't be opened or mapped, is not a raw {@code long}
+   *     Fenwick Tree, or wasn't closed cleanly and was modified since the last clean close
+   */
+  public static MappedFenwickTree open(Path path) throws IOException {
+    return open(path, Recovery.VERIFY);
+  }
+
+  /**
+   * Opens a Fenwick Tree that was created by {@link #create(Path, long)}, or a file that
+   * starts with a raw {@code long} tree written by {@link FenwickTreeFormat}. The tree is not
+   * rebuilt; unless the file needs to be verified, it's ready to serve queries as soon as the
+   * file is mapped.
+   *
+   * @param path the file to open
+   * @param recovery what to do if the file wasn't closed cleanly
+   * @return the tree
+   * @throws IOException if the file can't be opened or mapped, is not a raw {@code long}
+   *     Fenwick Tree, or wasn't closed cleanly and {@code recovery} rejects it
+   * @throws IllegalArgumentException if {@code recovery} is null
+   */
+  public static MappedFenwickTree open(Path path, Recovery recovery) throws IOException {
+    return open(path, recovery, CHUNK_BITS);
+  }
+
+  // Visible for testing with small chunks.
+  @SuppressWarnings("PMD.CloseResource")
+  static MappedFenwickTree open(Path path, Recovery recovery, int chunkBits)
+      throws IOException {
+    if (recovery == null) {
+      throw new IllegalArgumentException("recovery must not be null");
+    }
+    checkChunkBits(chunkBits);
+    FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("not a Fenwick Tree file: " + path);
+      }
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+      FenwickTreeFormat.Header header;
+      try {
+        header = FenwickTreeFormat.parseHeader(buf.order(ByteOrder.LITTLE_ENDIAN));
+      } catch (IllegalArgumentException e) {
+        throw new IOException("not a Fenwick Tree file: " + path, e);
+      }
+      if (header.type() != FenwickTreeFormat.TYPE_LONG
+          || header.encoding() != FenwickTreeFormat.RAW) {
+        throw new IOException("not a raw long Fenwick Tree file: " + path);
+      }
+      if (header.flags() != 0 && recovery == Recovery.REJECT) {
+        throw new IOException("Fenwick Tree file is open, or wasn't closed cleanly: " + path);
+      }
+      if (channel.size() - HEADER_SIZE < header.length()) {
+        throw new IOException("truncated Fenwick Tree file: " + path);
+      }
+      MappedFenwickTree tree = new MappedFenwickTree(channel, header.count() + 1, chunkBits);
+      tree.crc = header.crc();
+      if (header.flags() != 0) {
+        if (recovery == Recovery.VERIFY && tree.checksum() != header.crc()) {
+          throw new IOException(
+              "Fenwick Tree file wasn't closed cleanly, and was modified since: " + path);
+        }
+        // A trusted file may have been modified, so its checksum has to be recomputed.
+        tree.modified = recovery == Recovery.TRUST;
+      }
+      tree.putHeader(FenwickTreeFormat.FLAG_OPEN, tree.crc);
+      return tree;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static void checkChunkBits(int chunkBits) {
+    if (chunkBits < MIN_CHUNK_BITS || chunkBits > CHUNK_BITS) {
+      throw new IllegalArgumentException("chunkBits must be in the range [5, 30]");
+    }
+  }
+
+  // Writes the header, and forces it, so that the flags are persisted before any node.
+  private void putHeader(byte flags, int crc) {
+    MappedByteBuffer header = chunks[0];
+    long length = (size - 1) * Long.BYTES;
+    FenwickTreeFormat.putHeader(
+        header,
+        new FenwickTreeFormat.Header(
+            FenwickTreeFormat.TYPE_LONG, FenwickTreeFormat.RAW, flags, size - 1, length, crc));
+    header.force(0, HEADER_SIZE);
+  }
+
+  private long get(long i) {
+    long position = HEADER_SIZE + (i - 1) * Long.BYTES;
+    return chunks[(int) (position >>> chunkBits)].getLong((int) (position & chunkMask));
+  }
+
+  private void put(long i, long val) {
+    long position = HEADER_SIZE + (i - 1) * Long.BYTES;
+    chunks[(int) (position >>> chunkBits)].putLong((int) (position & chunkMask), val);
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [1, i]}.
+   *
+   * @param i end index of the interval, inclusive
+   * @return the sum of the closed interval {@code [1, i]}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public long query(long i) {
+    checkIndex(i);
+    return sum(i);
+  }
+
+  // An index past the end would otherwise fail inside the chunks, or be ignored by add.
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(long i) {
+    if (i < 1) {
+      throw new IllegalArgumentException("index must be positive");
+    }
+    if (i >= size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
+  }
+
+  private long sum(long i) {
+    long sum = 0;
+    long j = i;
+    while (j > 0) {
+      sum += get(j);
+      j -= Long.lowestOneBit(j);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code right} is not smaller than the
+   *     size of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public long queryRange(long left, long right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    checkIndex(right);
+    return sum(right) - sum(left - 1);
+  }
+
+  /**
+   * Adds {@code val} to the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to add to the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void add(long i, long val) {
+    checkIndex(i);
+    modified = true;
+    long j = i;
+    while (j < size) {
+      put(j, get(j) + val);
+      j += Long.lowestOneBit(j);
+    }
+  }
+
+  /**
+   * Sets the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to set at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void set(long i, long val) {
+    add(i, val - queryRange(i, i));
+  }
+
+  /**
+   * Forces the updates to be written to the file.
+   */
+  public void force() {
+    for (MappedByteBuffer chunk : chunks) {
+      chunk.force();
+    }
+  }
+
+  // Returns the CRC32C of all the nodes.
+  private int checksum() {
+    CRC32C checksum = new CRC32C();
+    for (int k = 0; k < chunks.length; k++) {
+      // The first chunk starts with the header.
+      int from = k == 0 ? HEADER_SIZE : 0;
+      checksum.update(chunks[k].slice(from, chunks[k].limit() - from));
+    }
+    return (int) checksum.getValue();
+  }
+
+  /**
+   * Forces the updates to be written to the file, updates the checksum, clears the open
+   * flag, and closes the file. The checksum is computed over all the nodes, so this method
+   * runs in linear time, unless the tree wasn't modified since it was opened.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (modified) {
+        force();
+        crc = checksum();
+      }
+      putHeader((byte) 0, crc);
+    } finally {
+      channel.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "MappedFenwickTree[size=" + size + "]";
+  }
+}
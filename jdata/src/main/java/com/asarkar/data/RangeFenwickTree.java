@@ -0,0 +1,151 @@
+package com.asarkar.data;
+
+/**
+ * A Fenwick Tree implementation that supports range updates and sum range queries.
+ * It keeps two {@link FenwickTree}s over the difference array {@code d}, where
+ * {@code d[k] = a[k] - a[k - 1]}: the first one stores {@code d[k]}, and the second one
+ * stores {@code d[k] * (k - 1)}. The sum of the closed interval {@code [1, i]} is then
+ * given by {@code i * sum(d[1..i]) - sum(d[k] * (k - 1) for k in [1, i])}.
+ * <p>
+ * Adding a value to an interval changes only two elements of the difference array.
+ * Therefore, all operations run in {@code O(log n)} time.
+ * Construction from a given array runs in linear time.
+ * <p>
+ * Point updates on a {@link FenwickTree} touch only one tree, so use that instead
+ * if range updates are not needed.
+ */
+public final class RangeFenwickTree {
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final int size;
+
+  private final FenwickTree diffs;
+  private final FenwickTree weightedDiffs;
+
+  /**
+   * Creates an empty Fenwick Tree of size {@code size + 1}.
+   *
+   * @param size size of the tree, zero-based
+   * @throws IllegalArgumentException if {@code size} is negative
+   */
+  public RangeFenwickTree(int size) {
+    this.diffs = new FenwickTree(size);
+    this.weightedDiffs = new FenwickTree(size);
+    this.size = diffs.size;
+  }
+
+  /**
+   * Constructs a Fenwick tree with an initial set of values. The size of the tree
+   * is one greater than the length of the array; the 0-th element is unused.
+   *
+   * @param values initial values for building a Fenwick tree
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public RangeFenwickTree(int[] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+
+    int[] d = new int[values.length];
+    int[] e = new int[values.length];
+    int prev = 0;
+    for (int k = 0; k < values.length; k++) {
+      d[k] = values[k] - prev;
+      // The 1-based index of values[k] is k + 1.
+      e[k] = d[k] * k;
+      prev = values[k];
+    }
+    this.diffs = new FenwickTree(d);
+    this.weightedDiffs = new FenwickTree(e);
+    this.size = diffs.size;
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [1, i]}.
+   *
+   * @param i end index of the interval, inclusive
+   * @return the sum of the closed interval {@code [1, i]}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1
+   */
+  public int query(int i) {
+    return diffs.query(i) * i - weightedDiffs.query(i);
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public int queryRange(int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    int sum = query(right);
+    return left == 1 ? sum : sum - query(left - 1);
+  }
+
+  /**
+   * Adds {@code val} to the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to add to the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void add(int i, int val) {
+    addRange(i, i, val);
+  }
+
+  /**
+   * Adds {@code val} to every value in the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @param val value to add to the values in the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   * @throws IllegalArgumentException if the index {@code right} is not smaller than the
+   *     size of the tree
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public void addRange(int left, int right, int val) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    if (right >= size) {
+      throw new IllegalArgumentException("index out of range: " + right);
+    }
+    diffs.add(left, val);
+    weightedDiffs.add(left, val * (left - 1));
+    if (right < size - 1) {
+      diffs.add(right + 1, -val);
+      weightedDiffs.add(right + 1, -val * right);
+    }
+  }
+
+  /**
+   * Sets the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to set at index {@code i}
+   */
+  public void set(int i, int val) {
+    add(i, val - queryRange(i, i));
+  }
+
+  @Override
+  public String toString() {
+    return diffs + ", " + weightedDiffs;
+  }
+}
@@ -0,0 +1,367 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A Segment Tree implementation that supports range queries for any associative operation,
+ * such as sum, min, max, or gcd, and lazy range updates. Unlike a {@link FenwickTree}, the
+ * operation doesn't need to have an inverse.
+ * <p>
+ * The tree is a complete binary tree stored in a flat array, where the children of node
+ * {@code k} are the nodes {@code 2k} and {@code 2k + 1}, and the leaves hold the values.
+ * Every node stores the combination of the values of its leaves, and a pending range update,
+ * or tag, that has not been pushed down to its children yet. Queries and updates work
+ * iteratively from the leaves up, and neither allocates nor boxes.
+ * <p>
+ * The operation is given as an {@link IntBinaryOperator} with an identity element, and the
+ * range updates as a {@link RangeUpdate}. All operations run in {@code O(log n)} time.
+ * Construction from a given array runs in linear time.
+ */
+public final class SegmentTree {
+
+  /**
+   * A lazy range update, described by an {@code int} tag, such as the value to add
+   * to, or to assign to, every element of a range.
+   */
+  public interface RangeUpdate {
+    /**
+     * Returns the combination of the values of a segment after applying the update
+     * described by {@code tag} to all of them.
+     *
+     * @param tag the update
+     * @param aggregate the combination of the values of the segment before the update
+     * @param length the number of values in the segment
+     * @return the combination of the values of the segment after the update
+     */
+    int apply(int tag, int aggregate, int length);
+
+    /**
+     * Returns a tag that has the same effect as applying {@code older}, and then
+     * {@code newer}.
+     *
+     * @param newer the update applied last
+     * @param older the update applied first
+     * @return the composed update
+     */
+    int compose(int newer, int older);
+
+    /**
+     * Returns an update that adds the tag to every value, for operations that
+     * distribute over addition, such as min and max.
+     *
+     * @return the update
+     */
+    static RangeUpdate add() {
+      return new RangeUpdate() {
+        @Override
+        public int apply(int tag, int aggregate, int length) {
+          return aggregate + tag;
+        }
+
+        @Override
+        public int compose(int newer, int older) {
+          return newer + older;
+        }
+      };
+    }
+
+    /**
+     * Returns an update that adds the tag to every value, for sums.
+     *
+     * @return the update
+     */
+    static RangeUpdate addToSum() {
+      return new RangeUpdate() {
+        @Override
+        public int apply(int tag, int aggregate, int length) {
+          return aggregate + tag * length;
+        }
+
+        @Override
+        public int compose(int newer, int older) {
+          return newer + older;
+        }
+      };
+    }
+
+    /**
+     * Returns an update that assigns the tag to every value, for idempotent operations,
+     * such as min and max.
+     *
+     * @return the update
+     */
+    static RangeUpdate assign() {
+      return new RangeUpdate() {
+        @Override
+        public int apply(int tag, int aggregate, int length) {
+          return tag;
+        }
+
+        @Override
+        public int compose(int newer, int older) {
+          return newer;
+        }
+      };
+    }
+
+    /**
+     * Returns an update that assigns the tag to every value, for sums.
+     *
+     * @return the update
+     */
+    static RangeUpdate assignToSum() {
+      return new RangeUpdate() {
+        @Override
+        public int apply(int tag, int aggregate, int length) {
+          return tag * length;
+        }
+
+        @Override
+        public int compose(int newer, int older) {
+          return newer;
+        }
+      };
+    }
+  }
+
+  // The number of values in the tree.
+  final int size;
+
+  private final IntBinaryOperator combine;
+  private final int identity;
+  private final RangeUpdate update;
+
+  // The number of leaves, the smallest power of 2 not smaller than size, and its log.
+  private final int leaves;
+  private final int log;
+  // Nodes 1 to leaves - 1 are internal, the leaves start at index leaves.
+  private final int[] data;
+  private final int[] tags;
+  private final boolean[] pending;
+
+  /**
+   * Constructs a Segment tree of {@code size} values, all equal to {@code identity}.
+   *
+   * @param size the number of values
+   * @param combine an associative operation
+   * @param identity the identity element of {@code combine}
+   * @param update the range update
+   * @throws IllegalArgumentException if {@code size} is negative, or {@code combine} or
+   *     {@code update} is null
+   */
+  public SegmentTree(int size, IntBinaryOperator combine, int identity, RangeUpdate update) {
+    this(filled(size, identity), combine, identity, update);
+  }
+
+  /**
+   * Constructs a Segment tree with an initial set of values. Like {@link FenwickTree},
+   * the tree is indexed from 1; the {@code k}-th element of the array has index
+   * {@code k + 1}.
+   *
+   * @param values initial values for building a Segment tree
+   * @param combine an associative operation
+   * @param identity the identity element of {@code combine}
+   * @param update the range update
+   * @throws IllegalArgumentException if the given array, {@code combine}, or {@code update}
+   *     is null
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public SegmentTree(int[] values, IntBinaryOperator combine, int identity, RangeUpdate update) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    if (combine == null || update == null) {
+      throw new IllegalArgumentException("combine and update must not be null");
+    }
+    this.size = values.length;
+    this.combine = combine;
+    this.identity = identity;
+    this.update = update;
+    this.log = size <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+    this.leaves = 1 << log;
+    this.data = new int[2 * leaves];
+    this.tags = new int[leaves];
+    this.pending = new boolean[leaves];
+
+    Arrays.fill(data, leaves + size, data.length, identity);
+    System.arraycopy(values, 0, data, leaves, size);
+    for (int k = leaves - 1; k > 0; k--) {
+      pull(k);
+    }
+  }
+
+  private static int[] filled(int size, int identity) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative");
+    }
+    int[] values = new int[size];
+    Arrays.fill(values, identity);
+    return values;
+  }
+
+  // Recomputes node k from its children.
+  private void pull(int k) {
+    data[k] = combine.applyAsInt(data[2 * k], data[2 * k + 1]);
+  }
+
+  // Applies the update to node k, and remembers it for the children of k, if any.
+  private void applyTag(int k, int tag) {
+    data[k] = update.apply(tag, data[k], leaves / Integer.highestOneBit(k));
+    if (k < leaves) {
+      tags[k] = pending[k] ? update.compose(tag, tags[k]) : tag;
+      pending[k] = true;
+    }
+  }
+
+  // Pushes the pending update of node k down to its children.
+  private void push(int k) {
+    if (pending[k]) {
+      applyTag(2 * k, tags[k]);
+      applyTag(2 * k + 1, tags[k]);
+      pending[k] = false;
+    }
+  }
+
+  // Pushes the pending updates on the path from the root down to leaf, exclusive.
+  private void pushPath(int leaf) {
+    for (int i = log; i > 0; i--) {
+      push(leaf >> i);
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int i) {
+    if (i < 1 || i > size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkRange(int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1 || right > size) {
+      throw new IllegalArgumentException("index out of range: [" + left + ", " + right + "]");
+    }
+  }
+
+  /**
+   * Returns the value at index {@code i}.
+   *
+   * @param i the index
+   * @return the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is out of range
+   */
+  public int get(int i) {
+    checkIndex(i);
+    int leaf = leaves + i - 1;
+    pushPath(leaf);
+    return data[leaf];
+  }
+
+  /**
+   * Sets the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to set at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is out of range
+   */
+  public void set(int i, int val) {
+    checkIndex(i);
+    int leaf = leaves + i - 1;
+    pushPath(leaf);
+    data[leaf] = val;
+    for (int j = 1; j <= log; j++) {
+      pull(leaf >> j);
+    }
+  }
+
+  /**
+   * Returns the combination of the values in the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the combination of the values in the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the interval is out of range
+   */
+  public int queryRange(int left, int right) {
+    checkRange(left, right);
+    // Half-open interval [lo, hi) of leaves.
+    int lo = leaves + left - 1;
+    int hi = leaves + right;
+    pushBoundaries(lo, hi);
+
+    int leftSum = identity;
+    int rightSum = identity;
+    while (lo < hi) {
+      if ((lo & 1) == 1) {
+        leftSum = combine.applyAsInt(leftSum, data[lo++]);
+      }
+      if ((hi & 1) == 1) {
+        rightSum = combine.applyAsInt(data[--hi], rightSum);
+      }
+      lo >>= 1;
+      hi >>= 1;
+    }
+    return combine.applyAsInt(leftSum, rightSum);
+  }
+
+  /**
+   * Applies the update described by {@code tag} to every value in the closed interval
+   * {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @param tag the update
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the interval is out of range
+   */
+  public void updateRange(int left, int right, int tag) {
+    checkRange(left, right);
+    int lo = leaves + left - 1;
+    int hi = leaves + right;
+    pushBoundaries(lo, hi);
+
+    for (int l = lo, r = hi; l < r; l >>= 1, r >>= 1) {
+      if ((l & 1) == 1) {
+        applyTag(l++, tag);
+      }
+      if ((r & 1) == 1) {
+        applyTag(--r, tag);
+      }
+    }
+    // Only the ancestors of the boundaries may cover leaves outside the interval.
+    for (int i = 1; i <= log; i++) {
+      if (((lo >> i) << i) != lo) {
+        pull(lo >> i);
+      }
+      if (((hi >> i) << i) != hi) {
+        pull((hi - 1) >> i);
+      }
+    }
+  }
+
+  // Pushes down the pending updates of the ancestors of the boundaries of [lo, hi).
+  private void pushBoundaries(int lo, int hi) {
+    for (int i = log; i > 0; i--) {
+      if (((lo >> i) << i) != lo) {
+        push(lo >> i);
+      }
+      if (((hi >> i) << i) != hi) {
+        push((hi - 1) >> i);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    int[] values = new int[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = get(i + 1);
+    }
+    return Arrays.toString(values);
+  }
+}
@@ -0,0 +1,370 @@
+package com.asarkar.data;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe histogram of non-negative {@code long} values, such as latencies, over a
+ * sliding window of time, that answers percentile queries with a Fenwick Tree descent.
+ * <p>
+ * Values are counted in log-linear buckets, like HdrHistogram: with {@code p} precision bits,
+ * the values below {@code 2^p} each get their own bucket, and every power-of-2 range above
+ * that is split into {@code 2^(p - 1)} buckets of equal width. The relative error of a
+ * reported value is therefore at most {@code 2^(1 - p)}.
+ * <p>
+ * Time is divided into windows of a fixed length, and the histogram keeps a ring of Fenwick
+ * Trees over the buckets, one for each of the last {@code windows} windows. Like
+ * {@link ConcurrentFenwickTree}, each tree may be striped to reduce contention. Every node
+ * is tagged with the window that it counts, and a node whose tag is not the window that its
+ * slot currently holds reads as zero, and is reset by the next record that touches it. When
+ * time moves into a new window, the oldest slot is therefore reused without being cleared,
+ * so expiring old values takes constant time. The tags are 24 bits wide, so once every
+ * {@code 2^22} windows of a slot, and on its first record, the record that moves the slot
+ * into the new window retags all of the slot's nodes instead.
+ * <p>
+ * Recording a value takes {@code O(log n)} time, where {@code n} is the number of buckets,
+ * and doesn't allocate. It never blocks, except while a slot is being retagged. Queries
+ * sum up the nodes of all stripes of all live windows, and take
+ * {@code O(log n * stripes * windows)} time. The histogram uses
+ * {@code 8 * windows * stripes * (n + 1)} bytes of memory.
+ * <p>
+ * Like {@link ConcurrentFenwickTree}, queries are not linearizable with respect to
+ * concurrent records, and a value recorded at the exact moment its window expires may be
+ * lost. Each node counts up to {@code 2^40 - 1} values per window and stripe.
+ */
+public final class SlidingWindowHistogram {
+
+  // Every node packs the tag of its window in the high bits, and its count in the low bits.
+  private static final int COUNT_BITS = 40;
+  private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+  private static final long TAG_MASK = (1L << (Long.SIZE - COUNT_BITS)) - 1;
+  // A tag that is older by at least half the tag range is considered newer.
+  private static final long HALF_TAG_RANGE = (TAG_MASK + 1) >>> 1;
+  // Retagging every quarter of the tag range keeps the tags of older windows in the first half.
+  private static final int RETAG_BITS = Long.SIZE - COUNT_BITS - 2;
+  private static final int DEFAULT_STRIPES = 4;
+
+  private final long maxValue;
+  private final int precisionBits;
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+
+  // The size of each Fenwick tree, i.e. the number of nodes in it.
+  private final int size;
+  private final int stripeMask;
+  // The trees are laid out one after the other, stripe k of slot s starts at
+  // (s * stripes + k) * size.
+  private final AtomicLongArray nodes;
+  // The window number that each slot currently holds.
+  private final AtomicLongArray epochs;
+  private final Object rotationLock = new Object();
+
+  /**
+   * Creates an empty histogram that uses {@link System#nanoTime()} as its clock, and up to 4
+   * stripes, depending on the number of available processors.
+   *
+   * @param maxValue the largest value that can be recorded accurately, larger values are
+   *     counted as {@code maxValue}
+   * @param precisionBits number of bits of precision of the buckets, between 1 and 20
+   * @param windows the number of windows that are retained
+   * @param window the length of each window
+   * @throws IllegalArgumentException if any of the arguments is out of range
+   */
+  public SlidingWindowHistogram(long maxValue, int precisionBits, int windows, Duration window) {
+    this(
+        maxValue,
+        precisionBits,
+        windows,
+        window,
+        Math.min(DEFAULT_STRIPES, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Creates an empty histogram that uses {@link System#nanoTime()} as its clock.
+   *
+   * @param maxValue the largest value that can be recorded accurately, larger values are
+   *     counted as {@code maxValue}
+   * @param precisionBits number of bits of precision of the buckets, between 1 and 20
+   * @param windows the number of windows that are retained
+   * @param window the length of each window
+   * @param stripes minimum number of stripes of each window, rounded up to a power of 2
+   * @throws IllegalArgumentException if any of the arguments is out of range
+   */
+  public SlidingWindowHistogram(
+      long maxValue, int precisionBits, int windows, Duration window, int stripes) {
+    this(maxValue, precisionBits, windows, window, stripes, System::nanoTime);
+  }
+
+  /**
+   * Creates an empty histogram that uses the given clock.
+   *
+   * @param maxValue the largest value that can be recorded accurately, larger values are
+   *     counted as {@code maxValue}
+   * @param precisionBits number of bits of precision of the buckets, between 1 and 20
+   * @param windows the number of windows that are retained
+   * @param window the length of each window
+   * @param stripes minimum number of stripes of each window, rounded up to a power of 2
+   * @param nanoClock a monotonic clock that returns nanoseconds, like {@link System#nanoTime()}
+   * @throws IllegalArgumentException if any of the arguments is out of range, or null, or if
+   *     the histogram would have more than {@code Integer.MAX_VALUE} nodes
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public SlidingWindowHistogram(
+      long maxValue,
+      int precisionBits,
+      int windows,
+      Duration window,
+      int stripes,
+      LongSupplier nanoClock) {
+    if (maxValue < 1) {
+      throw new IllegalArgumentException("maxValue must be positive");
+    }
+    if (precisionBits < 1 || precisionBits > 20) {
+      throw new IllegalArgumentException("precisionBits must be in the range [1, 20]");
+    }
+    if (windows < 1) {
+      throw new IllegalArgumentException("windows must be positive");
+    }
+    if (window == null || window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("window must be positive");
+    }
+    if (stripes < 1 || stripes > 1 << 30) {
+      throw new IllegalArgumentException("stripes must be in the range [1, 2^30]");
+    }
+    if (nanoClock == null) {
+      throw new IllegalArgumentException("nanoClock must not be null");
+    }
+    this.maxValue = maxValue;
+    this.precisionBits = precisionBits;
+    this.windowNanos = window.toNanos();
+    this.nanoClock = nanoClock;
+
+    int n = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.size = bucket(maxValue) + 2;
+    this.stripeMask = n - 1;
+    try {
+      this.nodes = new AtomicLongArray(Math.multiplyExact(Math.multiplyExact(windows, n), size));
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("histogram is too large", e);
+    }
+    this.epochs = new AtomicLongArray(windows);
+    for (int i = 0; i < windows; i++) {
+      epochs.set(i, Long.MIN_VALUE);
+    }
+  }
+
+  // Returns the zero-based bucket of the given value.
+  private int bucket(long value) {
+    int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - precisionBits);
+    return (shift << (precisionBits - 1)) + (int) (value >>> shift);
+  }
+
+  // Returns the largest value that is counted in the given bucket.
+  private long highestValue(int bucket) {
+    if (bucket < 1 << precisionBits) {
+      return bucket;
+    }
+    int shift = (bucket >>> (precisionBits - 1)) - 1;
+    long mantissa = bucket - ((long) shift << (precisionBits - 1));
+    // Wraps around to Long.MAX_VALUE for the last bucket.
+    return Math.min(maxValue, ((mantissa + 1) << shift) - 1);
+  }
+
+  /**
+   * Records a value in the current window.
+   *
+   * @param value the value to record
+   * @throws IllegalArgumentException if {@code value} is negative
+   */
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("value must not be negative");
+    }
+    long epoch = Math.floorDiv(nanoClock.getAsLong(), windowNanos);
+    int slot = Math.floorMod(epoch, epochs.length());
+    long current = epochs.get(slot);
+    if (current != epoch) {
+      if (current > epoch) {
+        // The clock was read before the window expired, and the slot has been reused.
+        return;
+      }
+      rotate(slot, current, epoch);
+    }
+    long tag = tag(epoch);
+    int offset = offset(slot, ConcurrentFenwickTree.stripe(stripeMask));
+    int j = bucket(Math.min(value, maxValue)) + 1;
+    while (j < size && increment(offset + j, tag)) {
+      j += Integer.lowestOneBit(j);
+    }
+  }
+
+  // Returns the tag of the given window. Consecutive windows of a slot have consecutive tags.
+  private long tag(long epoch) {
+    return Math.floorDiv(epoch, epochs.length()) & TAG_MASK;
+  }
+
+  private int offset(int slot, int stripe) {
+    return (slot * (stripeMask + 1) + stripe) * size;
+  }
+
+  /*
+  Adds one to the count of a node, and resets the node first if it holds an older window.
+  Returns false, without changing the node, if it holds a newer window, which means that
+  the slot has been reused since the clock was read.
+   */
+  private boolean increment(int i, long tag) {
+    while (true) {
+      long node = nodes.get(i);
+      long age = age(node, tag);
+      if (age >= HALF_TAG_RANGE) {
+        return false;
+      }
+      long next = age == 0 ? node + 1 : tag << COUNT_BITS | 1;
+      if (nodes.compareAndSet(i, node, next)) {
+        return true;
+      }
+    }
+  }
+
+  /*
+  Moves the slot into the given window. That only takes a CAS, unless the slot is used for
+  the first time, or its tags are about to wrap around. Then all of its nodes are retagged
+  while holding the lock, and the slot is only moved once they are, so that no record can
+  write to the new window before the retagging has finished.
+   */
+  private void rotate(int slot, long current, long epoch) {
+    if (!isRetagDue(current, epoch)) {
+      moveSlot(slot, current, epoch);
+      return;
+    }
+    synchronized (rotationLock) {
+      long prev = epochs.get(slot);
+      if (prev < epoch && isRetagDue(prev, epoch)) {
+        retag(slot, tag(epoch));
+      }
+      moveSlot(slot, prev, epoch);
+    }
+  }
+
+  private void moveSlot(int slot, long current, long epoch) {
+    long prev = current;
+    while (prev < epoch && !epochs.compareAndSet(slot, prev, epoch)) {
+      prev = epochs.get(slot);
+    }
+  }
+
+  private boolean isRetagDue(long current, long epoch) {
+    int windows = epochs.length();
+    return current == Long.MIN_VALUE
+        || Math.floorDiv(current, windows) >> RETAG_BITS
+            != Math.floorDiv(epoch, windows) >> RETAG_BITS;
+  }
+
+  /*
+  Resets every node of the slot to an empty node of the given window. Tags that are a
+  multiple of the tag range apart are equal, so a node that hasn't been touched for that
+  long can't be told apart from a node of this window by its tag.
+   */
+  private void retag(int slot, long tag) {
+    for (int i = offset(slot, 0); i < offset(slot + 1, 0); i++) {
+      nodes.set(i, tag << COUNT_BITS);
+    }
+  }
+
+  // Returns how many windows older than the given tag the node is, modulo the tag range.
+  private static long age(long node, long tag) {
+    return (tag - (node >>> COUNT_BITS)) & TAG_MASK;
+  }
+
+  /*
+  Stores the live slots, and the tags of the windows that they hold, in the given arrays,
+  and returns the number of live slots.
+   */
+  private int liveSlots(int[] slots, long[] tags) {
+    long now = Math.floorDiv(nanoClock.getAsLong(), windowNanos);
+    int live = 0;
+    for (int slot = 0; slot < epochs.length(); slot++) {
+      long epoch = epochs.get(slot);
+      if (epoch <= now && epoch > now - epochs.length()) {
+        slots[live] = slot;
+        tags[live++] = tag(epoch);
+      }
+    }
+    return live;
+  }
+
+  // Returns the value of node i, summed up over all the stripes of the live slots.
+  private long node(int[] slots, long[] tags, int live, int i) {
+    long sum = 0;
+    for (int k = 0; k < live; k++) {
+      for (int stripe = 0; stripe <= stripeMask; stripe++) {
+        long node = nodes.get(offset(slots[k], stripe) + i);
+        if (node >>> COUNT_BITS == tags[k]) {
+          sum += node & COUNT_MASK;
+        }
+      }
+    }
+    return sum;
+  }
+
+  // Returns the sum of all the buckets of the live slots.
+  private long total(int[] slots, long[] tags, int live) {
+    long count = 0;
+    for (int j = size - 1; j > 0; j -= Integer.lowestOneBit(j)) {
+      count += node(slots, tags, live, j);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of values recorded in the sliding window.
+   *
+   * @return the number of values recorded in the sliding window
+   */
+  public long count() {
+    int[] slots = new int[epochs.length()];
+    long[] tags = new long[epochs.length()];
+    int live = liveSlots(slots, tags);
+    return total(slots, tags, live);
+  }
+
+  /**
+   * Returns the value at the given percentile of the values recorded in the sliding window,
+   * for example 99.9 for the p999. The result is the largest value of the bucket that holds
+   * the percentile, so it is never smaller than the exact percentile.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the value at the given percentile, or 0 if the sliding window is empty
+   * @throws IllegalArgumentException if {@code percentile} is out of range
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public long valueAtPercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("percentile must be in the range [0, 100]");
+    }
+    int[] slots = new int[epochs.length()];
+    long[] tags = new long[epochs.length()];
+    int live = liveSlots(slots, tags);
+    long count = total(slots, tags, live);
+    if (count == 0) {
+      return 0;
+    }
+
+    // The rank of the requested value, between 1 and count.
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    int pos = 0;
+    for (int step = Integer.highestOneBit(size - 1); step > 0; step >>= 1) {
+      int next = pos + step;
+      if (next < size) {
+        long sum = node(slots, tags, live, next);
+        if (sum < rank) {
+          pos = next;
+          rank -= sum;
+        }
+      }
+    }
+    // Concurrent records may move the rank past the last bucket.
+    return highestValue(Math.min(pos, size - 2));
+  }
+}
@@ -0,0 +1,115 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+
+/**
+ * A Fenwick Tree implementation keyed by arbitrary {@code long}s, for sparse key domains
+ * such as timestamps or ids. The set of keys is given up front, and the tree compresses
+ * them internally: the keys are sorted, deduplicated, and replaced by their ranks in a
+ * {@link LongFenwickTree}. Memory is therefore proportional to the number of distinct keys,
+ * and not to the size of the key domain.
+ * <p>
+ * The values can only be updated at the given keys, but the sums may be queried for any
+ * interval; keys that are not in the tree contribute nothing to the sums.
+ * <p>
+ * Locating a key takes a binary search, so all operations run in {@code O(log n)} time,
+ * where {@code n} is the number of distinct keys.
+ * Construction runs in {@code O(n log n)} time.
+ */
+public final class SparseFenwickTree {
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final int size;
+
+  private final long[] keys;
+  private final LongFenwickTree tree;
+
+  /**
+   * Creates an empty Fenwick Tree over the given keys.
+   *
+   * @param keys the keys, in any order, may contain duplicates
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public SparseFenwickTree(long[] keys) {
+    if (keys == null) {
+      throw new IllegalArgumentException("keys array must not be null");
+    }
+    this.keys = Arrays.stream(keys).sorted().distinct().toArray();
+    this.tree = new LongFenwickTree(this.keys.length);
+    this.size = tree.size;
+  }
+
+  // Returns the number of keys that are smaller than or equal to the given key.
+  private int rank(long key) {
+    int i = Arrays.binarySearch(keys, key);
+    return i >= 0 ? i + 1 : -(i + 1);
+  }
+
+  // Returns the 1-based index of the given key in the tree.
+  private int indexOf(long key) {
+    int i = Arrays.binarySearch(keys, key);
+    if (i < 0) {
+      throw new IllegalArgumentException("unknown key: " + key);
+    }
+    return i + 1;
+  }
+
+  /**
+   * Returns the sum of the values of all the keys that are smaller than or equal to
+   * {@code key}.
+   *
+   * @param key end of the interval, inclusive
+   * @return the sum of the interval {@code [Long.MIN_VALUE, key]}
+   */
+  public long query(long key) {
+    int i = rank(key);
+    return i == 0 ? 0 : tree.query(i);
+  }
+
+  /**
+   * Returns the sum of the values of all the keys in the closed interval
+   * {@code [left, right]}.
+   *
+   * @param left start of the interval, inclusive
+   * @param right end of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   */
+  public long queryRange(long left, long right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    // The number of keys that are strictly smaller than left.
+    int i = Arrays.binarySearch(keys, left);
+    int lo = i >= 0 ? i : -(i + 1);
+    int hi = rank(right);
+    return lo == hi ? 0 : tree.queryRange(lo + 1, hi);
+  }
+
+  /**
+   * Adds {@code val} to the value of {@code key}.
+   *
+   * @param key the key
+   * @param val value to add to the value of {@code key}
+   * @throws IllegalArgumentException if {@code key} is not one of the keys of this tree
+   */
+  public void add(long key, long val) {
+    tree.add(indexOf(key), val);
+  }
+
+  /**
+   * Sets the value of {@code key}.
+   *
+   * @param key the key
+   * @param val value to set for {@code key}
+   * @throws IllegalArgumentException if {@code key} is not one of the keys of this tree
+   */
+  public void set(long key, long val) {
+    tree.set(indexOf(key), val);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(keys) + ", " + tree;
+  }
+}
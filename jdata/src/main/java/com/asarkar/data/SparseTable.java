@@ -0,0 +1,123 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * An immutable Sparse Table implementation that answers range queries for an idempotent
+ * operation, such as min, max, or gcd, in constant time. It is meant for static data that is
+ * built once and queried many times; unlike a {@link SegmentTree}, the values can't be updated.
+ * <p>
+ * Level {@code k} of the table stores the combination of every interval of length
+ * {@code 2^k}, and the levels are laid out one after another in a single flat array.
+ * A query combines the two, possibly overlapping, intervals of the largest power-of-2 length
+ * that cover it, which is only correct because the operation is idempotent.
+ * <p>
+ * Queries run in {@code O(1)} time, and construction runs in {@code O(n log n)} time and space.
+ */
+public final class SparseTable {
+
+  // The number of values in the table.
+  final int size;
+
+  private final IntBinaryOperator combine;
+  // table[k * size + i] is the combination of the values in [i, i + 2^k), zero-based.
+  private final int[] table;
+
+  /**
+   * Constructs a Sparse Table over the given values. Like {@link FenwickTree}, the table is
+   * indexed from 1; the {@code k}-th element of the array has index {@code k + 1}.
+   *
+   * @param values the values, which are copied
+   * @param combine an associative and idempotent operation
+   * @throws IllegalArgumentException if the given array or {@code combine} is null, or the
+   *     table would have more than {@code Integer.MAX_VALUE} elements
+   */
+  public SparseTable(int[] values, IntBinaryOperator combine) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    if (combine == null) {
+      throw new IllegalArgumentException("combine must not be null");
+    }
+    this.size = values.length;
+    this.combine = combine;
+    int levels = levels(size);
+    this.table = Arrays.copyOf(values, length(size));
+
+    for (int k = 1; k < levels; k++) {
+      int prev = (k - 1) * size;
+      int cur = k * size;
+      int half = 1 << (k - 1);
+      for (int i = 0; i + 2 * half <= size; i++) {
+        table[cur + i] = combine.applyAsInt(table[prev + i], table[prev + i + half]);
+      }
+    }
+  }
+
+  /**
+   * Constructs a Sparse Table for range minimum queries over the given values.
+   *
+   * @param values the values, which are copied
+   * @return a Sparse Table for range minimum queries
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public static SparseTable min(int[] values) {
+    return new SparseTable(values, Math::min);
+  }
+
+  /**
+   * Constructs a Sparse Table for range maximum queries over the given values.
+   *
+   * @param values the values, which are copied
+   * @return a Sparse Table for range maximum queries
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public static SparseTable max(int[] values) {
+    return new SparseTable(values, Math::max);
+  }
+
+  private static int levels(int size) {
+    return size == 0 ? 0 : log2(size) + 1;
+  }
+
+  // Visible for testing, since the values of a table that overflows take gigabytes.
+  static int length(int size) {
+    try {
+      return Math.multiplyExact(size, levels(size));
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("values array is too large for a Sparse Table", e);
+    }
+  }
+
+  private static int log2(int n) {
+    return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(n);
+  }
+
+  /**
+   * Returns the combination of the values in the closed interval {@code [left, right]}.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the combination of the values in the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the interval is out of range
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public int queryRange(int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1 || right > size) {
+      throw new IllegalArgumentException("index out of range: [" + left + ", " + right + "]");
+    }
+    int k = log2(right - left + 1);
+    int level = k * size;
+    return combine.applyAsInt(table[level + left - 1], table[level + right - (1 << k)]);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(Arrays.copyOf(table, size));
+  }
+}
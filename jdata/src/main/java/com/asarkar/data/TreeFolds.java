@@ -0,0 +1,182 @@
+package com.asarkar.data;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Parallel folds over binary trees of {@link TreeNode}s, such as size, height, or sum.
+ * <p>
+ * A fold computes a result for every node from the node value and the results of its two
+ * subtrees, and the result of an empty subtree is a given constant. The two subtrees of a
+ * node are independent, so the top {@code parallelDepth} levels of the tree are folded in
+ * parallel, as {@link RecursiveTask}s in the common {@link ForkJoinPool}, one per subtree.
+ * The subtrees below that depth are folded sequentially, with an iterative post-order
+ * traversal, so deep or degenerate trees don't overflow the stack.
+ * <p>
+ * A balanced tree splits into {@code 2^parallelDepth} subtrees of similar size, which keeps
+ * all the workers busy. A degenerate tree doesn't split at all, and is effectively folded
+ * sequentially. Forking can't speed up a fold when the common pool has a parallelism of 1,
+ * and only adds the cost of the tasks; a {@code parallelDepth} of 0 avoids it.
+ */
+public final class TreeFolds {
+  private TreeFolds() {}
+
+  /**
+   * Computes the result of a node from its value and the results of its subtrees.
+   *
+   * @param <T> the type of values stored in the tree
+   * @param <R> the type of the result
+   */
+  @FunctionalInterface
+  public interface Folder<T, R> {
+    /**
+     * Returns the result of a node.
+     *
+     * @param val the node value
+     * @param left the result of the left subtree
+     * @param right the result of the right subtree
+     * @return the result of the node
+     */
+    R fold(T val, R left, R right);
+  }
+
+  /**
+   * Folds the tree in parallel, with a parallel depth chosen from the parallelism of the
+   * common {@link ForkJoinPool}, such that there are about 16 subtrees per worker.
+   *
+   * @param root the root of the tree, may be null
+   * @param empty the result of an empty subtree
+   * @param folder the function that computes the result of a node
+   * @return the result of the root, or {@code empty} if the tree is empty
+   * @param <T> the type of values stored in the tree
+   * @param <R> the type of the result
+   */
+  public static <T, R> R fold(TreeNode<T> root, R empty, Folder<? super T, R> folder) {
+    int parallelism = ForkJoinPool.getCommonPoolParallelism();
+    int depth = Integer.SIZE - Integer.numberOfLeadingZeros(parallelism - 1) + 4;
+    return fold(root, empty, folder, depth);
+  }
+
+  /**
+   * Folds the tree in parallel, splitting it into subtrees down to the given depth.
+   *
+   * @param root the root of the tree, may be null
+   * @param empty the result of an empty subtree
+   * @param folder the function that computes the result of a node
+   * @param parallelDepth the depth below which subtrees are folded sequentially; 0 folds
+   *     the whole tree sequentially in the calling thread
+   * @return the result of the root, or {@code empty} if the tree is empty
+   * @throws IllegalArgumentException if {@code parallelDepth} is negative
+   * @param <T> the type of values stored in the tree
+   * @param <R> the type of the result
+   */
+  public static <T, R> R fold(
+      TreeNode<T> root, R empty, Folder<? super T, R> folder, int parallelDepth) {
+    if (parallelDepth < 0) {
+      throw new IllegalArgumentException("parallelDepth must not be negative");
+    }
+    if (parallelDepth == 0) {
+      return foldSequentially(root, empty, folder);
+    }
+    return ForkJoinPool.commonPool().invoke(new FoldTask<>(root, empty, folder, parallelDepth));
+  }
+
+  /**
+   * Maps every node value of the tree, and reduces the mapped values in parallel with an
+   * associative combiner. The values are combined in in-order, so the combiner doesn't
+   * need to be commutative.
+   *
+   * @param root the root of the tree, may be null
+   * @param mapper the function that maps a node value
+   * @param identity the identity element of {@code combiner}
+   * @param combiner an associative function that combines two results
+   * @return the reduction of the mapped values, or {@code identity} if the tree is empty
+   * @param <T> the type of values stored in the tree
+   * @param <R> the type of the result
+   */
+  public static <T, R> R reduce(
+      TreeNode<T> root,
+      Function<? super T, ? extends R> mapper,
+      R identity,
+      BinaryOperator<R> combiner) {
+    return fold(
+        root,
+        identity,
+        (val, left, right) -> combiner.apply(combiner.apply(left, mapper.apply(val)), right));
+  }
+
+  // Folds the tree with an iterative post-order traversal.
+  private static <T, R> R foldSequentially(
+      TreeNode<T> root, R empty, Folder<? super T, R> folder) {
+    if (root == null) {
+      return empty;
+    }
+    Deque<TreeNode<T>> stack = new ArrayDeque<>();
+    // The results of the subtrees that are done, but whose parents aren't; may contain nulls.
+    List<R> results = new ArrayList<>();
+    TreeNode<T> current = root;
+    TreeNode<T> lastVisited = null;
+    while (current != null || !stack.isEmpty()) {
+      if (current != null) {
+        stack.push(current);
+        current = current.left;
+        continue;
+      }
+      TreeNode<T> node = stack.peek();
+      if (node.right != null && node.right != lastVisited) {
+        current = node.right;
+      } else {
+        stack.pop();
+        R right = node.right == null ? empty : results.remove(results.size() - 1);
+        R left = node.left == null ? empty : results.remove(results.size() - 1);
+        results.add(folder.fold(node.val, left, right));
+        lastVisited = node;
+      }
+    }
+    return results.get(0);
+  }
+
+  @SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "Tasks are never serialized")
+  private static final class FoldTask<T, R> extends RecursiveTask<R> {
+    private static final long serialVersionUID = 1L;
+
+    private final TreeNode<T> node;
+    private final R empty;
+    private final Folder<? super T, R> folder;
+    // The number of levels below this node that are still folded in parallel.
+    private final int depth;
+
+    FoldTask(TreeNode<T> node, R empty, Folder<? super T, R> folder, int depth) {
+      this.node = node;
+      this.empty = empty;
+      this.folder = folder;
+      this.depth = depth;
+    }
+
+    @Override
+    protected R compute() {
+      if (node == null) {
+        return empty;
+      }
+      if (depth == 0) {
+        return foldSequentially(node, empty, folder);
+      }
+      FoldTask<T, R> right = new FoldTask<>(node.right, empty, folder, depth - 1);
+      FoldTask<T, R> left = new FoldTask<>(node.left, empty, folder, depth - 1);
+      // Only forks if both subtrees are non-empty, degenerate paths are walked inline.
+      if (node.left == null || node.right == null) {
+        return folder.fold(node.val, left.compute(), right.compute());
+      }
+      right.fork();
+      R leftResult = left.compute();
+      return folder.fold(node.val, leftResult, right.join());
+    }
+  }
+}
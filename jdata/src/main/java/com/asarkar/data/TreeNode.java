@@ -1,6 +1,7 @@
 package com.asarkar.data;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.lang.System.Logger.Level;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,6 +20,7 @@ import java.util.stream.Collectors;
     justification = "Consumer needs to be able to set left and right")
 public class TreeNode<T> {
   private static final Pattern RTRIM = Pattern.compile("\\s+$");
+  private static final System.Logger LOGGER = System.getLogger(TreeNode.class.getName());
 
   public final T val;
   public TreeNode<T> left;
@@ -42,12 +44,15 @@ public class TreeNode<T> {
   /**
    * Builds a binary tree in level order from the given {@code values}.
    * The list may contain null values to indicate absence of specific subtrees.
+   * <p>
+   * If the {@code DEBUG} level is enabled for the {@link System.Logger} named after this class,
+   * the values and the tree are logged at that level.
    *
    * @param values the node values
    * @return the root of the tree, or null if {@code values} were empty
    * @param <T> the type of values stored in this tree
    */
-  @SuppressWarnings({"PMD.SystemPrintln", "PMD.AvoidInstantiatingObjectsInLoops"})
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
   public static <T> TreeNode<T> fromList(List<T> values) {
     Deque<TreeNode<T>> queue = new ArrayDeque<>();
     TreeNode<T> root = null;
@@ -69,11 +74,59 @@ public class TreeNode<T> {
       }
       i++;
     }
-    System.out.println(values);
-    prettyPrint(root);
+    logTree(values, root);
     return root;
   }
 
+  /**
+   * Builds a binary tree of {@code int} values in level order from the given {@code values}.
+   * This is the same as {@link #fromList(List)}, except that absent subtrees are indicated by
+   * {@code nullSentinel}, and that the values are read from an array instead of a list of
+   * boxed integers. The tree is never logged.
+   *
+   * @param values the node values
+   * @param nullSentinel the value that indicates absence of a subtree
+   * @return the root of the tree, or null if {@code values} were empty
+   * @throws IllegalArgumentException if the given array is null
+   */
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  public static TreeNode<Integer> fromArray(int[] values, int nullSentinel) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    if (values.length == 0 || values[0] == nullSentinel) {
+      return null;
+    }
+    // Every node is enqueued exactly once, so an array of the input length can hold them all.
+    @SuppressWarnings("unchecked")
+    TreeNode<Integer>[] queue = (TreeNode<Integer>[]) new TreeNode<?>[values.length];
+    int head = 0;
+    int tail = 0;
+    TreeNode<Integer> root = new TreeNode<>(values[0]);
+    queue[tail++] = root;
+    int i = 1;
+    while (i < values.length) {
+      TreeNode<Integer> node = queue[head++];
+      if (values[i] != nullSentinel) {
+        node.left = new TreeNode<>(values[i]);
+        queue[tail++] = node.left;
+      }
+      i++;
+      if (i < values.length && values[i] != nullSentinel) {
+        node.right = new TreeNode<>(values[i]);
+        queue[tail++] = node.right;
+      }
+      i++;
+    }
+    return root;
+  }
+
+  private static <T> void logTree(List<T> values, TreeNode<T> root) {
+    if (LOGGER.isLoggable(Level.DEBUG)) {
+      LOGGER.log(Level.DEBUG, () -> values + System.lineSeparator() + prettyString(root));
+    }
+  }
+
   /**
    * Does a level order traversal of this tree.
    *
@@ -124,11 +177,13 @@ public class TreeNode<T> {
    */
   @SuppressWarnings("PMD.SystemPrintln")
   public static <T> void prettyPrint(TreeNode<T> node) {
-    List<String> box = prettyString(node, 0).box;
-    String str = box.stream()
+    System.out.printf("%n%s", prettyString(node));
+  }
+
+  private static <T> String prettyString(TreeNode<T> node) {
+    return prettyString(node, 0).box.stream()
         .map(s -> RTRIM.matcher(s).replaceAll(""))
         .collect(Collectors.joining(System.lineSeparator()));
-    System.out.printf("%n%s", str);
   }
 
   private record Data(List<String> box, int boxWidth, int rootStart, int rootEnd) {}
@@ -0,0 +1,303 @@
+package com.asarkar.data;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy traversals of binary trees of {@link TreeNode}s. The nodes are visited one at a time,
+ * as the returned iterator or stream is consumed, so a traversal can be short-circuited
+ * without building a list of all the values first.
+ * <p>
+ * None of the traversals is recursive, so they work on arbitrarily deep trees. The
+ * stack-based traversals use {@code O(h)} extra space, where {@code h} is the height of the
+ * tree, and the level order traversal uses {@code O(w)}, where {@code w} is its width.
+ * The Morris traversals use {@code O(1)} extra space, by temporarily modifying the tree;
+ * see {@link Order#MORRIS_IN_ORDER}. Since a short-circuited stream would leave the tree
+ * modified, they are only available as iterators.
+ * <p>
+ * The tree must not be modified while it is being traversed.
+ */
+public final class TreeNodes {
+  private TreeNodes() {}
+
+  /** The order in which the nodes of a tree are visited. */
+  public enum Order {
+    /** Node, left subtree, right subtree, using a stack. */
+    PRE_ORDER,
+    /** Left subtree, node, right subtree, using a stack. */
+    IN_ORDER,
+    /** Left subtree, right subtree, node, using a stack. */
+    POST_ORDER,
+    /** Level by level, from left to right, using a queue. */
+    LEVEL_ORDER,
+    /**
+     * The same order as {@link #IN_ORDER}, using Morris traversal. While the traversal is in
+     * progress, the {@code right} references of some nodes point back to their in-order
+     * successors, and the tree is only restored once the traversal is exhausted. An iterator
+     * must therefore be consumed until {@link Iterator#hasNext()} returns false; otherwise,
+     * the tree is left modified. For the same reason, this order can't be streamed.
+     */
+    MORRIS_IN_ORDER,
+    /**
+     * The same order as {@link #PRE_ORDER}, using Morris traversal. The same restrictions as
+     * for {@link #MORRIS_IN_ORDER} apply.
+     */
+    MORRIS_PRE_ORDER
+  }
+
+  /**
+   * Returns an iterator over the values of the tree, in the given order.
+   *
+   * @param root the root of the tree, may be null
+   * @param order the traversal order
+   * @return an iterator over the values of the tree
+   * @param <T> the type of values stored in the tree
+   */
+  public static <T> Iterator<T> iterator(TreeNode<T> root, Order order) {
+    return switch (order) {
+      case PRE_ORDER -> new PreOrderIterator<>(root);
+      case IN_ORDER -> new InOrderIterator<>(root);
+      case POST_ORDER -> new PostOrderIterator<>(root);
+      case LEVEL_ORDER -> new LevelOrderIterator<>(root);
+      case MORRIS_IN_ORDER -> new MorrisInOrderIterator<>(root);
+      case MORRIS_PRE_ORDER -> new MorrisPreOrderIterator<>(root);
+    };
+  }
+
+  /**
+   * Returns an ordered spliterator over the values of the tree, in the given order. The size
+   * of the tree is unknown up front, so splitting copies batches of values into arrays, the
+   * same way as {@link Spliterators#spliteratorUnknownSize(Iterator, int)}.
+   *
+   * @param root the root of the tree, may be null
+   * @param order the traversal order
+   * @return a spliterator over the values of the tree
+   * @throws IllegalArgumentException if {@code order} is a Morris traversal
+   * @param <T> the type of values stored in the tree
+   */
+  public static <T> Spliterator<T> spliterator(TreeNode<T> root, Order order) {
+    // A stream may stop consuming the spliterator at any time, which leaves threads behind.
+    if (order == Order.MORRIS_IN_ORDER || order == Order.MORRIS_PRE_ORDER) {
+      throw new IllegalArgumentException("order must not be a Morris traversal: " + order);
+    }
+    return Spliterators.spliteratorUnknownSize(iterator(root, order), Spliterator.ORDERED);
+  }
+
+  /**
+   * Returns a sequential, lazy stream of the values of the tree, in the given order.
+   *
+   * @param root the root of the tree, may be null
+   * @param order the traversal order
+   * @return a stream of the values of the tree
+   * @throws IllegalArgumentException if {@code order} is a Morris traversal
+   * @param <T> the type of values stored in the tree
+   */
+  public static <T> Stream<T> stream(TreeNode<T> root, Order order) {
+    return StreamSupport.stream(spliterator(root, order), false);
+  }
+
+  // An iterator that finds the next node to visit on demand.
+  private abstract static class NodeIterator<T> implements Iterator<T> {
+    private TreeNode<T> nextNode;
+
+    // Returns the next node to visit, or null if the traversal is done.
+    abstract TreeNode<T> advance();
+
+    @Override
+    public boolean hasNext() {
+      if (nextNode == null) {
+        nextNode = advance();
+      }
+      return nextNode != null;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T val = nextNode.val;
+      nextNode = null;
+      return val;
+    }
+  }
+
+  private static final class PreOrderIterator<T> extends NodeIterator<T> {
+    private final Deque<TreeNode<T>> stack = new ArrayDeque<>();
+
+    PreOrderIterator(TreeNode<T> root) {
+      if (root != null) {
+        stack.push(root);
+      }
+    }
+
+    @Override
+    TreeNode<T> advance() {
+      if (stack.isEmpty()) {
+        return null;
+      }
+      TreeNode<T> node = stack.pop();
+      if (node.right != null) {
+        stack.push(node.right);
+      }
+      if (node.left != null) {
+        stack.push(node.left);
+      }
+      return node;
+    }
+  }
+
+  private static final class InOrderIterator<T> extends NodeIterator<T> {
+    private final Deque<TreeNode<T>> stack = new ArrayDeque<>();
+    private TreeNode<T> current;
+
+    InOrderIterator(TreeNode<T> root) {
+      current = root;
+    }
+
+    @Override
+    TreeNode<T> advance() {
+      while (current != null) {
+        stack.push(current);
+        current = current.left;
+      }
+      if (stack.isEmpty()) {
+        return null;
+      }
+      TreeNode<T> node = stack.pop();
+      current = node.right;
+      return node;
+    }
+  }
+
+  private static final class PostOrderIterator<T> extends NodeIterator<T> {
+    private final Deque<TreeNode<T>> stack = new ArrayDeque<>();
+    private TreeNode<T> current;
+    private TreeNode<T> lastVisited;
+
+    PostOrderIterator(TreeNode<T> root) {
+      current = root;
+    }
+
+    @Override
+    TreeNode<T> advance() {
+      while (current != null || !stack.isEmpty()) {
+        if (current != null) {
+          stack.push(current);
+          current = current.left;
+        } else {
+          TreeNode<T> node = stack.peek();
+          // Visits the right subtree first, unless it's empty, or has just been visited.
+          if (node.right != null && node.right != lastVisited) {
+            current = node.right;
+          } else {
+            stack.pop();
+            lastVisited = node;
+            return node;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final class LevelOrderIterator<T> extends NodeIterator<T> {
+    private final Deque<TreeNode<T>> queue = new ArrayDeque<>();
+
+    LevelOrderIterator(TreeNode<T> root) {
+      if (root != null) {
+        queue.add(root);
+      }
+    }
+
+    @Override
+    TreeNode<T> advance() {
+      TreeNode<T> node = queue.poll();
+      if (node != null) {
+        if (node.left != null) {
+          queue.add(node.left);
+        }
+        if (node.right != null) {
+          queue.add(node.right);
+        }
+      }
+      return node;
+    }
+  }
+
+  // Returns the rightmost node of the left subtree of node, stopping at a thread to node.
+  private static <T> TreeNode<T> predecessor(TreeNode<T> node) {
+    TreeNode<T> pred = node.left;
+    while (pred.right != null && pred.right != node) {
+      pred = pred.right;
+    }
+    return pred;
+  }
+
+  private static final class MorrisInOrderIterator<T> extends NodeIterator<T> {
+    private TreeNode<T> current;
+
+    MorrisInOrderIterator(TreeNode<T> root) {
+      current = root;
+    }
+
+    @Override
+    TreeNode<T> advance() {
+      while (current != null) {
+        if (current.left == null) {
+          TreeNode<T> node = current;
+          current = current.right;
+          return node;
+        }
+        TreeNode<T> pred = predecessor(current);
+        if (pred.right == null) {
+          // Threads the predecessor to this node, to come back after the left subtree.
+          pred.right = current;
+          current = current.left;
+        } else {
+          // The left subtree is done, removes the thread.
+          pred.right = null;
+          TreeNode<T> node = current;
+          current = current.right;
+          return node;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final class MorrisPreOrderIterator<T> extends NodeIterator<T> {
+    private TreeNode<T> current;
+
+    MorrisPreOrderIterator(TreeNode<T> root) {
+      current = root;
+    }
+
+    @Override
+    TreeNode<T> advance() {
+      while (current != null) {
+        if (current.left == null) {
+          TreeNode<T> node = current;
+          current = current.right;
+          return node;
+        }
+        TreeNode<T> pred = predecessor(current);
+        if (pred.right == null) {
+          pred.right = current;
+          TreeNode<T> node = current;
+          current = current.left;
+          return node;
+        }
+        pred.right = null;
+        current = current.right;
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package com.asarkar.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Unrolled linked list node. Unlike a {@link ListNode}, which holds a single value, every node
+ * holds a small array of up to {@code capacity} values, 32 by default. Walking the list
+ * therefore follows one {@code next} reference per chunk of values instead of one per value,
+ * and the values of a chunk are read from contiguous memory.
+ * <p>
+ * A node is also an {@link Iterable} over the values of the list that starts at it.
+ * Appending runs in amortized {@code O(1)} time, and splitting or merging nodes runs in
+ * {@code O(capacity)} time.
+ *
+ * @param <T> the type of values stored in this list
+ */
+public final class UnrolledListNode<T> implements Iterable<T> {
+  private static final int DEFAULT_CAPACITY = 32;
+
+  private final Object[] vals;
+  private int size;
+  private UnrolledListNode<T> next;
+  // Set when this node is merged into its predecessor, and is no longer part of any list.
+  private boolean detached;
+
+  /** Constructs an empty {@code UnrolledListNode} with the default capacity. */
+  public UnrolledListNode() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty {@code UnrolledListNode} that can hold {@code capacity} values.
+   *
+   * @param capacity the maximum number of values in this node
+   * @throws IllegalArgumentException if {@code capacity} is not positive
+   */
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  public UnrolledListNode(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.vals = new Object[capacity];
+  }
+
+  /**
+   * Builds an unrolled linked list from the given {@code values}, with the default capacity.
+   * Every node except the last one is full.
+   *
+   * @param values the values
+   * @return the head of the list, or null if {@code values} were empty
+   * @param <T> the type of values stored in this list
+   */
+  public static <T> UnrolledListNode<T> fromIterable(Iterable<T> values) {
+    return fromIterable(values, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Builds an unrolled linked list from the given {@code values}. Every node except the last
+   * one is full.
+   *
+   * @param values the values
+   * @param capacity the maximum number of values in a node
+   * @return the head of the list, or null if {@code values} were empty
+   * @throws IllegalArgumentException if {@code capacity} is not positive
+   * @param <T> the type of values stored in this list
+   */
+  public static <T> UnrolledListNode<T> fromIterable(Iterable<T> values, int capacity) {
+    UnrolledListNode<T> head = new UnrolledListNode<>(capacity);
+    UnrolledListNode<T> tail = head;
+    for (T t : values) {
+      tail = tail.append(t);
+    }
+    return head.size == 0 ? null : head;
+  }
+
+  /**
+   * Builds an unrolled linked list from the values of the given {@link ListNode} list,
+   * with the default capacity.
+   *
+   * @param head the node to start from, may be null
+   * @return the head of the list, or null if {@code head} is null
+   * @param <T> the type of values stored in this list
+   */
+  public static <T> UnrolledListNode<T> fromListNode(ListNode<T> head) {
+    return head == null ? null : fromIterable(head);
+  }
+
+  /**
+   * Converts the unrolled linked list to a {@link ListNode} list with the same values.
+   *
+   * @param head the node to start from, may be null
+   * @return the head of the list, or null if the list is empty
+   * @param <T> the type of values stored in this list
+   */
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  public static <T> ListNode<T> toListNode(UnrolledListNode<T> head) {
+    ListNode<T> dummy = new ListNode<>(null);
+    ListNode<T> prev = dummy;
+    for (UnrolledListNode<T> node = head; node != null; node = node.next) {
+      for (int i = 0; i < node.size; i++) {
+        prev.next = new ListNode<>(node.get(i));
+        prev = prev.next;
+      }
+    }
+    return dummy.next;
+  }
+
+  /**
+   * Traverses the unrolled linked list and returns a list containing the values.
+   *
+   * @param head the node to start from, may be null
+   * @return a list containing the values
+   * @param <T> the type of values stored in this list
+   */
+  public static <T> List<T> toList(UnrolledListNode<T> head) {
+    List<T> list = new ArrayList<>();
+    for (UnrolledListNode<T> node = head; node != null; node = node.next) {
+      for (int i = 0; i < node.size; i++) {
+        list.add(node.get(i));
+      }
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Returns the number of values in this node.
+   *
+   * @return the number of values in this node
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the maximum number of values in this node.
+   *
+   * @return the capacity of this node
+   */
+  public int capacity() {
+    return vals.length;
+  }
+
+  /**
+   * Returns this node's successor.
+   *
+   * @return the next node, or null if this is the last node
+   */
+  public UnrolledListNode<T> next() {
+    return next;
+  }
+
+  /**
+   * Returns the {@code i}-th value of this node.
+   *
+   * @param i the zero-based index of the value in this node
+   * @return the {@code i}-th value of this node
+   * @throws IndexOutOfBoundsException if {@code i} is out of range
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int i) {
+    return (T) vals[Objects.checkIndex(i, size)];
+  }
+
+  /**
+   * Adds {@code val} after the last value of this node. If this node is full, a new node
+   * with the same capacity is linked after it, and holds the value. Appending to the last
+   * node of a list, and continuing with the returned node, runs in amortized {@code O(1)} time.
+   *
+   * @param val the value to add
+   * @return the node that holds {@code val}
+   * @throws IllegalStateException if this node was merged into its predecessor
+   */
+  public UnrolledListNode<T> append(T val) {
+    if (detached) {
+      throw new IllegalStateException("node was merged into its predecessor");
+    }
+    UnrolledListNode<T> node = this;
+    if (size == vals.length) {
+      node = new UnrolledListNode<>(vals.length);
+      node.next = next;
+      next = node;
+    }
+    node.vals[node.size++] = val;
+    return node;
+  }
+
+  /**
+   * Moves the second half of the values of this node to a new node with the same capacity,
+   * which is linked after this node.
+   * <p>
+   * If this node is the last node of a list, the new node becomes the last node. A caller
+   * that holds this node as the {@code tail} of a list must continue with the new node, as
+   * in {@code tail = tail.split()}; appending to this node afterwards inserts the values
+   * before the ones that were moved.
+   *
+   * @return the new node, which holds the second half of the values
+   */
+  public UnrolledListNode<T> split() {
+    int half = size / 2;
+    UnrolledListNode<T> node = new UnrolledListNode<>(vals.length);
+    node.size = size - half;
+    System.arraycopy(vals, half, node.vals, 0, node.size);
+    Arrays.fill(vals, half, size, null);
+    size = half;
+    node.next = next;
+    next = node;
+    return node;
+  }
+
+  /**
+   * Moves the values of the next node to the end of this node, and unlinks the next node,
+   * if all the values fit into this node.
+   * <p>
+   * The unlinked node is left empty and detached, and appending to it throws an
+   * {@link IllegalStateException}, so that values appended to it aren't silently lost.
+   * A caller that holds the next node, for example as the {@code tail} of a list, must
+   * continue with this node instead.
+   *
+   * @return true if the nodes were merged, false otherwise
+   */
+  public boolean mergeNext() {
+    if (next == null || size + next.size > vals.length) {
+      return false;
+    }
+    UnrolledListNode<T> node = next;
+    System.arraycopy(node.vals, 0, vals, size, node.size);
+    size += node.size;
+    next = node.next;
+
+    Arrays.fill(node.vals, 0, node.size, null);
+    node.size = 0;
+    node.next = null;
+    node.detached = true;
+    return true;
+  }
+
+  /**
+   * Returns an iterator over the values of the list that starts at this node. The list
+   * must not be modified while it is being iterated.
+   *
+   * @return an iterator over the values of the list
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private UnrolledListNode<T> node = UnrolledListNode.this;
+      private int i;
+
+      @Override
+      public boolean hasNext() {
+        while (node != null && i == node.size) {
+          node = node.next;
+          i = 0;
+        }
+        return node != null;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return node.get(i++);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(Arrays.copyOf(vals, size));
+  }
+}
@@ -0,0 +1,274 @@
+package com.asarkar.data;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe tree that supports the same operations as {@link FenwickTree}, and
+ * in addition, consistent snapshots that can be read while updates continue.
+ * <p>
+ * The nodes of a Fenwick Tree overlap, so an update can't be applied to a copy of the path
+ * it touches without copying most of the tree. Therefore, this class is implemented as a
+ * persistent, immutable binary sum tree instead. An update copies the {@code O(log n)} nodes
+ * on the path from the root to the updated leaf, shares all the other nodes with the
+ * previous version, and publishes the new root with a compare-and-set. A snapshot is just a
+ * reference to the root at that point in time, so taking one runs in {@code O(1)} time,
+ * and never blocks, or is blocked by, updates.
+ * <p>
+ * Old versions are reclaimed by the garbage collector once no snapshot references them.
+ * Subtrees whose values are all zero are not allocated at all.
+ * <p>
+ * All operations run in {@code O(log n)} time. Updates allocate {@code O(log n)} nodes,
+ * and may be retried under contention, but never lose an update.
+ * Construction from a given array runs in linear time.
+ */
+public final class VersionedFenwickTree {
+
+  // The size of Fenwick tree, i.e. the number of nodes in it.
+  final int size;
+
+  private final AtomicReference<Node> root;
+
+  // An immutable node; null stands for a subtree whose values are all zero.
+  private record Node(int sum, Node left, Node right) {}
+
+  /**
+   * Creates an empty tree of size {@code size + 1}.
+   *
+   * @param size size of the tree, zero-based
+   * @throws IllegalArgumentException if {@code size} is negative
+   */
+  public VersionedFenwickTree(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative");
+    }
+    this.size = size + 1;
+    this.root = new AtomicReference<>();
+  }
+
+  /**
+   * Constructs a tree with an initial set of values. The size of the tree
+   * is one greater than the length of the array; the 0-th element is unused.
+   *
+   * @param values initial values for building a tree
+   * @throws IllegalArgumentException if the given array is null
+   */
+  public VersionedFenwickTree(int[] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("values array must not be null");
+    }
+    this.size = values.length + 1;
+    this.root = new AtomicReference<>(build(values, 1, values.length));
+  }
+
+  private static Node build(int[] values, int lo, int hi) {
+    if (lo > hi) {
+      return null;
+    }
+    if (lo == hi) {
+      return values[lo - 1] == 0 ? null : new Node(values[lo - 1], null, null);
+    }
+    int mid = (lo + hi) >>> 1;
+    Node left = build(values, lo, mid);
+    Node right = build(values, mid + 1, hi);
+    return left == null && right == null ? null : new Node(sum(left) + sum(right), left, right);
+  }
+
+  private static int sum(Node node) {
+    return node == null ? 0 : node.sum;
+  }
+
+  /**
+   * Returns a read-only snapshot of the current version of this tree. Subsequent updates
+   * to this tree are not visible in the snapshot.
+   *
+   * @return a snapshot of this tree
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(root.get(), size);
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [1, i]}.
+   *
+   * @param i end index of the interval, inclusive
+   * @return the sum of the closed interval {@code [1, i]}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1
+   */
+  public int query(int i) {
+    return query(root.get(), size, i);
+  }
+
+  /**
+   * Returns the sum of the closed interval {@code [left, right]}. Both ends are read from
+   * the same version of the tree.
+   *
+   * @param left start index of the interval, inclusive
+   * @param right end index of the interval, inclusive
+   * @return the sum of the interval {@code [left, right]}
+   * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+   * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+   */
+  public int queryRange(int left, int right) {
+    return queryRange(root.get(), size, left, right);
+  }
+
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private static int query(Node root, int size, int i) {
+    if (i < 1) {
+      throw new IllegalArgumentException("index must be positive");
+    }
+    return prefixSum(root, size - 1, i);
+  }
+
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private static int queryRange(Node root, int size, int left, int right) {
+    if (left > right) {
+      throw new IllegalArgumentException("invalid range, right must not be smaller than left");
+    }
+    if (left < 1) {
+      throw new IllegalArgumentException("left must be positive");
+    }
+    int n = size - 1;
+    return prefixSum(root, n, right) - prefixSum(root, n, left - 1);
+  }
+
+  // Returns the sum of the closed interval [1, i] in the tree rooted at node over [1, n].
+  private static int prefixSum(Node root, int n, int i) {
+    int sum = 0;
+    Node node = root;
+    int lo = 1;
+    int hi = n;
+    while (node != null && i >= lo) {
+      if (hi <= i) {
+        sum += node.sum;
+        break;
+      }
+      int mid = (lo + hi) >>> 1;
+      if (i <= mid) {
+        node = node.left;
+        hi = mid;
+      } else {
+        sum += sum(node.left);
+        node = node.right;
+        lo = mid + 1;
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Adds {@code val} to the value at index {@code i}.
+   *
+   * @param i the index
+   * @param val value to add to the value at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void add(int i, int val) {
+    checkIndex(i);
+    Node current;
+    do {
+      current = root.get();
+    } while (!root.compareAndSet(current, update(current, 1, size - 1, i, val, false)));
+  }
+
+  /**
+   * Sets the value at index {@code i}. Unlike {@link FenwickTree#set(int, int)}, this is
+   * atomic with respect to concurrent updates at the same index.
+   *
+   * @param i the index
+   * @param val value to set at index {@code i}
+   * @throws IllegalArgumentException if the index {@code i} is smaller than 1, or not
+   *     smaller than the size of the tree
+   */
+  public void set(int i, int val) {
+    checkIndex(i);
+    Node current;
+    do {
+      current = root.get();
+    } while (!root.compareAndSet(current, update(current, 1, size - 1, i, val, true)));
+  }
+
+  @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+  private void checkIndex(int i) {
+    if (i < 1 || i >= size) {
+      throw new IllegalArgumentException("index out of range: " + i);
+    }
+  }
+
+  // Returns a copy of the path from node to the leaf i, with the leaf updated.
+  private static Node update(Node node, int lo, int hi, int i, int val, boolean replace) {
+    if (lo == hi) {
+      int leaf = replace ? val : sum(node) + val;
+      return leaf == 0 ? null : new Node(leaf, null, null);
+    }
+    int mid = (lo + hi) >>> 1;
+    Node left = node == null ? null : node.left;
+    Node right = node == null ? null : node.right;
+    if (i <= mid) {
+      left = update(left, lo, mid, i, val, replace);
+    } else {
+      right = update(right, mid + 1, hi, i, val, replace);
+    }
+    return left == null && right == null ? null : new Node(sum(left) + sum(right), left, right);
+  }
+
+  @Override
+  public String toString() {
+    int[] values = new int[size - 1];
+    collect(root.get(), 1, size - 1, values);
+    return Arrays.toString(values);
+  }
+
+  private static void collect(Node node, int lo, int hi, int[] values) {
+    if (node == null) {
+      return;
+    }
+    if (lo == hi) {
+      values[lo - 1] = node.sum;
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    collect(node.left, lo, mid, values);
+    collect(node.right, mid + 1, hi, values);
+  }
+
+  /**
+   * An immutable, point-in-time view of a {@link VersionedFenwickTree}. It may be shared
+   * freely between threads.
+   */
+  public static final class Snapshot {
+    private final Node root;
+    private final int size;
+
+    private Snapshot(Node root, int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    /**
+     * Returns the sum of the closed interval {@code [1, i]} in this snapshot.
+     *
+     * @param i end index of the interval, inclusive
+     * @return the sum of the closed interval {@code [1, i]}
+     * @throws IllegalArgumentException if the index {@code i} is smaller than 1
+     */
+    public int query(int i) {
+      return VersionedFenwickTree.query(root, size, i);
+    }
+
+    /**
+     * Returns the sum of the closed interval {@code [left, right]} in this snapshot.
+     *
+     * @param left start index of the interval, inclusive
+     * @param right end index of the interval, inclusive
+     * @return the sum of the interval {@code [left, right]}
+     * @throws IllegalArgumentException if {@code left} is greater than {@code right}
+     * @throws IllegalArgumentException if the index {@code left} is smaller than 1
+     */
+    public int queryRange(int left, int right) {
+      return VersionedFenwickTree.queryRange(root, size, left, right);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.asarkar.data;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * A minimal harness for the benchmarks in the tests. The benchmarks are plain main classes,
+ * named {@code *Benchmark}, so they don't run with the tests, and can be given a heap of
+ * their own. Compile them with {@code ./gradlew :jdata:testClasses}, and run them from the
+ * root of the repository, for example:
+ * <pre>
+ * java -Xmx2g -cp jdata/build/classes/java/main:jdata/build/classes/java/test \
+ *     com.asarkar.data.BlockedFenwickTreeBenchmark
+ * </pre>
+ * Every measurement runs a task a few times to warm up the JIT compiler, and then reports
+ * the best of a few timed runs. A task returns a checksum of its results, which keeps the
+ * JIT compiler from eliminating the work, and lets a benchmark check that the
+ * implementations it compares agree with each other.
+ */
+@SuppressWarnings("PMD.SystemPrintln")
+final class Benchmark {
+  private static final int WARMUPS = 3;
+  private static final int RUNS = 5;
+
+  private Benchmark() {}
+
+  /**
+   * Runs the task, and prints the best time per operation.
+   *
+   * @param name the name of the measurement
+   * @param ops the number of operations done by one run of the task
+   * @param task the task, which returns a checksum of its results
+   * @return the checksum returned by the last run
+   */
+  static long run(String name, long ops, LongSupplier task) {
+    long checksum = 0;
+    for (int k = 0; k < WARMUPS; k++) {
+      checksum = task.getAsLong();
+    }
+    long best = Long.MAX_VALUE;
+    for (int k = 0; k < RUNS; k++) {
+      long start = System.nanoTime();
+      checksum = task.getAsLong();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf(
+        Locale.ROOT, "%-48s %12.1f ns/op %10.2f ms/run%n", name, (double) best / ops, best / 1e6);
+    return checksum;
+  }
+
+  /**
+   * Checks that two implementations computed the same checksum.
+   *
+   * @param expected the checksum of the reference implementation
+   * @param actual the checksum of the implementation under test
+   * @throws IllegalStateException if the checksums differ
+   */
+  static void check(long expected, long actual) {
+    if (expected != actual) {
+      throw new IllegalStateException("checksums differ: " + expected + " != " + actual);
+    }
+  }
+
+  /**
+   * Prints a header for the measurements that follow.
+   *
+   * @param title the header
+   */
+  static void header(String title) {
+    System.out.println();
+    System.out.println(title);
+  }
+}
@@ -0,0 +1,62 @@
+package com.asarkar.data;
+
+import java.util.Random;
+
+/**
+ * Compares the latency of random queries and updates of {@link BlockedFenwickTree} with
+ * {@link FenwickTree}, for {@code 10^6}, {@code 10^7}, and {@code 10^8} values. The largest
+ * size needs about 1.2 GiB of heap; see {@link Benchmark} for how to run it.
+ */
+final class BlockedFenwickTreeBenchmark {
+  private static final int[] SIZES = {1_000_000, 10_000_000, 100_000_000};
+  private static final int OPS = 1_000_000;
+
+  private BlockedFenwickTreeBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    Random rand = new Random(42);
+    for (int n : SIZES) {
+      int[] values = rand.ints(n, -1000, 1000).toArray();
+      int[] indices = rand.ints(OPS, 1, n + 1).toArray();
+      int[] deltas = rand.ints(OPS, -1000, 1000).toArray();
+      FenwickTree tree = new FenwickTree(values);
+      BlockedFenwickTree blocked = new BlockedFenwickTree(values);
+
+      Benchmark.header("n = " + n + ", " + OPS + " operations per run");
+      long expected = Benchmark.run("FenwickTree.query", OPS, () -> {
+        long sum = 0;
+        for (int i : indices) {
+          sum += tree.query(i);
+        }
+        return sum;
+      });
+      long actual = Benchmark.run("BlockedFenwickTree.query", OPS, () -> {
+        long sum = 0;
+        for (int i : indices) {
+          sum += blocked.query(i);
+        }
+        return sum;
+      });
+      Benchmark.check(expected, actual);
+
+      expected = Benchmark.run("FenwickTree.add", OPS, () -> {
+        for (int k = 0; k < OPS; k++) {
+          tree.add(indices[k], deltas[k]);
+        }
+        return tree.query(n);
+      });
+      actual = Benchmark.run("BlockedFenwickTree.add", OPS, () -> {
+        for (int k = 0; k < OPS; k++) {
+          blocked.add(indices[k], deltas[k]);
+        }
+        return blocked.query(n);
+      });
+      Benchmark.check(expected, actual);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+class BlockedFenwickTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  /*
+  Mirrors random updates on a FenwickTree, and verifies that every prefix sum agrees.
+  The sizes range over several blocks, including partially filled last blocks.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testAgreesWithFenwickTree(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition() * 3;
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    FenwickTree expected = new FenwickTree(arr);
+    BlockedFenwickTree tree = rand.nextBoolean() ? new BlockedFenwickTree(arr) : fill(arr);
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int idx = rand.nextInt(1, n + 1);
+      int val = randInt();
+      if (rand.nextBoolean()) {
+        expected.add(idx, val);
+        tree.add(idx, val);
+      } else {
+        expected.set(idx, val);
+        tree.set(idx, val);
+      }
+
+      int lo = rand.nextInt(1, n + 1);
+      int hi = rand.nextInt(lo, n + 1);
+      assertThat(tree.queryRange(lo, hi)).isEqualTo(expected.queryRange(lo, hi));
+    }
+    for (int i = 1; i <= n; i++) {
+      assertThat(tree.query(i)).isEqualTo(expected.query(i));
+    }
+  }
+
+  @Test
+  void testIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new BlockedFenwickTree(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new BlockedFenwickTree(-1));
+
+    BlockedFenwickTree tree = new BlockedFenwickTree(1);
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(-1, 1));
+  }
+
+  @Test
+  void testOutOfRange() {
+    BlockedFenwickTree tree = new BlockedFenwickTree(new int[] {1, 2, 3});
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(4));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, 4));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(4, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(4, 1));
+    assertThat(tree.query(3)).isEqualTo(6);
+  }
+
+  private BlockedFenwickTree fill(int[] arr) {
+    BlockedFenwickTree tree = new BlockedFenwickTree(arr.length);
+    for (int i = 1; i <= arr.length; i++) {
+      tree.add(i, arr[i - 1]);
+    }
+    return tree;
+  }
+
+  private int randInt() {
+    return rand.nextInt(-1000, 3000);
+  }
+}
@@ -0,0 +1,113 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConcurrentFenwickTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+  private static final int THREADS = 8;
+
+  private final Random rand = new Random();
+
+  /*
+  Adds a random value to a random index in the Fenwick Tree,
+  and then does random range queries.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testRandomAdd(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    long[] arr = IntStream.range(0, n).mapToLong(i -> rand.nextInt(-1000, 3000)).toArray();
+    ConcurrentFenwickTree tree = new ConcurrentFenwickTree(arr.clone());
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int idx = rand.nextInt(1, n + 1);
+      long val = rand.nextLong(Integer.MAX_VALUE);
+      arr[idx - 1] += val;
+      tree.add(idx, val);
+
+      int lo = rand.nextInt(1, n + 1);
+      int hi = rand.nextInt(lo, n + 1);
+      long expected = IntStream.rangeClosed(lo, hi).mapToLong(i -> arr[i - 1]).sum();
+      assertThat(tree.queryRange(lo, hi)).isEqualTo(expected);
+    }
+  }
+
+  /*
+  Every thread adds 1 to every index repeatedly; once they are done,
+  no update must have been lost, regardless of the number of stripes.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, THREADS})
+  void testConcurrentAdd(int stripes) throws Exception {
+    int n = 100;
+    ConcurrentFenwickTree tree = new ConcurrentFenwickTree(n, stripes);
+    assertThat(tree.stripes()).isEqualTo(Integer.highestOneBit(stripes * 2 - 1));
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int loop = 0; loop < LOOP_LIMIT; loop++) {
+                    for (int i = 1; i <= n; i++) {
+                      tree.add(i, 1);
+                    }
+                  }
+                }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    for (int i = 1; i <= n; i++) {
+      assertThat(tree.queryRange(i, i)).isEqualTo((long) THREADS * LOOP_LIMIT);
+    }
+    assertThat(tree.query(n)).isEqualTo((long) THREADS * LOOP_LIMIT * n);
+  }
+
+  @Test
+  void testIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrentFenwickTree(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrentFenwickTree(-1));
+    assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrentFenwickTree(1, 0));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new ConcurrentFenwickTree(Integer.MAX_VALUE - 1, 1 << 30));
+
+    ConcurrentFenwickTree tree = new ConcurrentFenwickTree(1);
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(0, 1));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, THREADS})
+  void testOutOfRange(int stripes) {
+    int n = 5;
+    ConcurrentFenwickTree tree = new ConcurrentFenwickTree(n, stripes);
+    tree.add(n, 1);
+    // Index n + 1 would otherwise be the first node of the next stripe.
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(n + 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, n + 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(n + 1, 1));
+    assertThat(tree.query(n)).isEqualTo(1);
+  }
+}
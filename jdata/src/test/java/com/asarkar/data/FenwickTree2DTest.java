@@ -0,0 +1,129 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.Random;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FenwickTree2DTest {
+  private static final int LOOP_LIMIT = 100;
+
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [[1, 2, 3], [4, 5, 6]] | 1 | 1 | 2 | 3 | 21
+            [[1, 2, 3], [4, 5, 6]] | 2 | 2 | 2 | 3 | 11
+            [[1, 2, 3], [4, 5, 6]] | 1 | 2 | 2 | 2 | 7
+            [[-1], [-2], [-3]] | 2 | 1 | 3 | 1 | -5
+        """)
+  void testRectangleQueries(
+      @ConvertWith(IterableConverter.class) int[][] grid,
+      int top,
+      int left,
+      int bottom,
+      int right,
+      int expected) {
+    FenwickTree2D tree = new FenwickTree2D(grid);
+    assertThat(tree.queryRange(top, left, bottom, right)).isEqualTo(expected);
+  }
+
+  /*
+  Adds or sets a random value at a random cell in the Fenwick Tree,
+  and then does random rectangle queries.
+   */
+  @RepeatedTest(value = LOOP_LIMIT, failureThreshold = 1)
+  void testRandomUpdates(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int m = rand.nextInt(1, LOOP_LIMIT + 1);
+    int[][] grid = new int[n][m];
+    for (int[] row : grid) {
+      for (int j = 0; j < m; j++) {
+        row[j] = randInt();
+      }
+    }
+    FenwickTree2D tree = new FenwickTree2D(grid);
+
+    for (int k = 0; k < LOOP_LIMIT; k++) {
+      int row = rand.nextInt(1, n + 1);
+      int col = rand.nextInt(1, m + 1);
+      int val = randInt();
+      if (rand.nextBoolean()) {
+        grid[row - 1][col - 1] += val;
+        tree.add(row, col, val);
+      } else {
+        grid[row - 1][col - 1] = val;
+        tree.set(row, col, val);
+      }
+
+      int top = rand.nextInt(1, n + 1);
+      int bottom = rand.nextInt(top, n + 1);
+      int left = rand.nextInt(1, m + 1);
+      int right = rand.nextInt(left, m + 1);
+      int expected = 0;
+      for (int i = top; i <= bottom; i++) {
+        for (int j = left; j <= right; j++) {
+          expected += grid[i - 1][j - 1];
+        }
+      }
+      assertThat(tree.queryRange(top, left, bottom, right)).isEqualTo(expected);
+      assertThat(tree.query(bottom, right))
+          .isEqualTo(tree.queryRange(1, 1, bottom, right));
+    }
+  }
+
+  @Test
+  void testEmptyTree() {
+    FenwickTree2D tree = new FenwickTree2D(2, 3);
+    tree.add(2, 3, 5);
+    tree.add(1, 1, 1);
+    assertThat(tree.query(2, 3)).isEqualTo(6);
+    assertThat(tree.queryRange(2, 2, 2, 3)).isEqualTo(5);
+  }
+
+  @Test
+  void testIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new FenwickTree2D(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new FenwickTree2D(-1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> new FenwickTree2D(1, -1));
+    assertThatIllegalArgumentException().isThrownBy(() -> new FenwickTree2D(1 << 16, 1 << 16));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new FenwickTree2D(new int[][] {{1, 2}, {3}}));
+
+    FenwickTree2D tree = new FenwickTree2D(2, 2);
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(1, 0));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1, 1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, 2, 1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(0, 1, 1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(1, 0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(0, 1, 1));
+  }
+
+  @Test
+  void testOutOfRange() {
+    FenwickTree2D tree = new FenwickTree2D(new int[][] {{1, 2, 3}, {4, 5, 6}});
+    // Column 4 of row 1 would otherwise read the first node of row 2.
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(1, 4));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(3, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, 1, 1, 4));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, 1, 3, 3));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(1, 4, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(3, 3, 1));
+    assertThat(tree.query(2, 3)).isEqualTo(21);
+  }
+
+  private int randInt() {
+    return rand.nextInt(-1000, 3000);
+  }
+}
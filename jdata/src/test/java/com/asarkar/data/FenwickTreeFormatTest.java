@@ -0,0 +1,131 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FenwickTreeFormatTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @TempDir
+  private Path tempDir;
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testRoundTrip(boolean compress) throws IOException {
+    // Larger than a write chunk, so that the raw payload is written in several chunks.
+    int n = 50_000;
+    int[] arr = IntStream.range(0, n).map(i -> rand.nextInt(-1000, 3000)).toArray();
+    arr[0] = Integer.MIN_VALUE;
+    arr[1] = Integer.MAX_VALUE;
+    FenwickTree tree = new FenwickTree(arr);
+    tree.append(7);
+    long[] longs = IntStream.of(arr).mapToLong(i -> (long) i * i).toArray();
+    longs[2] = Long.MIN_VALUE;
+    LongFenwickTree longTree = new LongFenwickTree(longs);
+    DoubleFenwickTree doubleTree =
+        new DoubleFenwickTree(IntStream.of(arr).mapToDouble(i -> i / 3.0).toArray());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (WritableByteChannel out = Channels.newChannel(bytes)) {
+      FenwickTreeFormat.write(tree, out, compress);
+      FenwickTreeFormat.write(longTree, out, compress);
+      FenwickTreeFormat.write(doubleTree, out);
+    }
+    ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+
+    assertThat(FenwickTreeFormat.readFenwickTree(in)).hasToString(tree.toString());
+    assertThat(FenwickTreeFormat.readLongFenwickTree(in)).hasToString(longTree.toString());
+    assertThat(FenwickTreeFormat.readDoubleFenwickTree(in)).hasToString(doubleTree.toString());
+    assertThat(in.hasRemaining()).isFalse();
+  }
+
+  @Test
+  void testCompression() throws IOException {
+    int[] counts = IntStream.range(0, LOOP_LIMIT).map(i -> i % 10).toArray();
+    FenwickTree tree = new FenwickTree(counts);
+
+    ByteArrayOutputStream raw = new ByteArrayOutputStream();
+    FenwickTreeFormat.write(tree, Channels.newChannel(raw), false);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    FenwickTreeFormat.write(tree, Channels.newChannel(compressed), true);
+
+    assertThat(compressed.size()).isLessThan(raw.size() / 3);
+    FenwickTree actual =
+        FenwickTreeFormat.readFenwickTree(ByteBuffer.wrap(compressed.toByteArray()));
+    assertThat(actual.toValues()).isEqualTo(counts);
+  }
+
+  @Test
+  void testReadFromMappedFile() throws IOException {
+    LongFenwickTree tree = new LongFenwickTree(new long[] {1, 2, 3, 4, 5});
+    Path path = tempDir.resolve("tree.bin");
+    try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE)) {
+      FenwickTreeFormat.write(tree, out, false);
+    }
+
+    try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buf = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+      LongFenwickTree actual = FenwickTreeFormat.readLongFenwickTree(buf);
+      assertThat(actual.queryRange(2, 4)).isEqualTo(9);
+    }
+  }
+
+  @Test
+  void testCorruptInput() throws IOException {
+    FenwickTree tree = new FenwickTree(new int[] {1, 2, 3});
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FenwickTreeFormat.write(tree, Channels.newChannel(out), false);
+    byte[] bytes = out.toByteArray();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> FenwickTreeFormat.readFenwickTree(null));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> FenwickTreeFormat.readLongFenwickTree(ByteBuffer.wrap(bytes)));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> FenwickTreeFormat.readFenwickTree(ByteBuffer.wrap(bytes, 0, 40)));
+
+    byte[] flipped = bytes.clone();
+    flipped[flipped.length - 1] ^= 1;
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> FenwickTreeFormat.readFenwickTree(ByteBuffer.wrap(flipped)))
+        .withMessageContaining("checksum");
+
+    byte[] magic = bytes.clone();
+    magic[0] = 0;
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> FenwickTreeFormat.readFenwickTree(ByteBuffer.wrap(magic)));
+  }
+
+  @Test
+  void testCountLargerThanPayload() throws IOException {
+    FenwickTree tree = new FenwickTree(new int[] {1, 2, 3});
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FenwickTreeFormat.write(tree, Channels.newChannel(out), true);
+    ByteBuffer buf = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+    // The checksum only covers the payload, so it doesn't catch a corrupt count.
+    buf.putLong(8, Integer.MAX_VALUE - 1L);
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> FenwickTreeFormat.readFenwickTree(buf))
+        .withMessageContaining("payload length");
+  }
+}
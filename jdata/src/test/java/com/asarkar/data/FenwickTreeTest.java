@@ -2,6 +2,7 @@ package com.asarkar.data;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
 
 import com.asarkar.junit.IterableConverter;
 import java.util.Arrays;
@@ -119,6 +120,327 @@ class FenwickTreeTest {
     }
   }
 
+  /*
+  Applies batches of random sizes, so that both the point update and
+  the rebuild paths are exercised, and then does random range queries.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  @SuppressWarnings({"PMD.UnitTestShouldIncludeAssert"})
+  void testRandomBatches(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    FenwickTree tree = new FenwickTree(arr);
+
+    for (int j = 0; j < LOOP_LIMIT / 100; j++) {
+      int m = rand.nextInt(0, 2 * n + 1);
+      int[] indices = IntStream.range(0, m).map(i -> rand.nextInt(1, n + 1)).toArray();
+      int[] values = IntStream.range(0, m).map(i -> randInt()).toArray();
+      if (rand.nextBoolean()) {
+        tree.addAll(indices, values);
+        for (int k = 0; k < m; k++) {
+          arr[indices[k] - 1] += values[k];
+        }
+      } else {
+        tree.setAll(indices, values);
+        for (int k = 0; k < m; k++) {
+          arr[indices[k] - 1] = values[k];
+        }
+      }
+      doRandomRangeQuery(arr, tree);
+    }
+  }
+
+  @Test
+  void testBatchRebuild() {
+    FenwickTree tree = new FenwickTree(new int[] {1, 2, 3, 4});
+    tree.addAll(new int[] {1, 2, 3, 4, 1, 2, 3, 4}, new int[] {1, 1, 1, 1, 1, 1, 1, 1});
+    assertThat(tree.query(4)).isEqualTo(18);
+    tree.setAll(new int[] {1, 2, 3, 4, 4, 3, 2, 1}, new int[] {9, 9, 9, 9, 4, 3, 2, 1});
+    assertThat(tree.query(4)).isEqualTo(10);
+    assertThat(tree.queryRange(2, 3)).isEqualTo(5);
+  }
+
+  @Test
+  void testInvalidBatch() {
+    FenwickTree tree = new FenwickTree(new int[] {1, 2});
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.addAll(null, new int[0]));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.setAll(new int[0], null));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.addAll(new int[] {1}, new int[] {1, 2}));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.addAll(new int[] {1, 0}, new int[] {1, 2}));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.setAll(new int[] {1, 3}, new int[] {1, 2}));
+    // Nothing is applied if any index is invalid.
+    assertThat(tree.query(2)).isEqualTo(3);
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+        [1, 2, 3, 4, 5, 6] | 0 | 1
+        [1, 2, 3, 4, 5, 6] | 1 | 1
+        [1, 2, 3, 4, 5, 6] | 2 | 2
+        [1, 2, 3, 4, 5, 6] | 6 | 3
+        [1, 2, 3, 4, 5, 6] | 7 | 4
+        [1, 2, 3, 4, 5, 6] | 21 | 6
+        [1, 2, 3, 4, 5, 6] | 22 | 7
+        [0, 0, 5, 0, 0] | 1 | 3
+        [0, 0, 5, 0, 0] | 5 | 3
+        [0, 0, 5, 0, 0] | 6 | 6
+        [] | 1 | 1
+      """)
+  void testLowerBound(@ConvertWith(IterableConverter.class) int[] arr, int k, int expected) {
+    FenwickTree tree = new FenwickTree(arr);
+    assertThat(tree.lowerBound(k)).isEqualTo(expected);
+  }
+
+  /*
+  Compares the binary lifting search with a linear scan over the prefix sums
+  for non-negative values, and checks the weaker guarantee for arbitrary values.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testRandomLowerBound(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int[] arr = IntStream.range(0, n).map(i -> rand.nextInt(0, 10)).toArray();
+    int[] sums = prefixSums(arr);
+    FenwickTree tree = new FenwickTree(arr);
+
+    for (int k = -1; k <= sums[n - 1] + 1; k++) {
+      int expected = 1;
+      while (expected <= n && sums[expected - 1] < k) {
+        expected++;
+      }
+      assertThat(tree.lowerBound(k)).isEqualTo(expected);
+    }
+
+    FenwickTree randTree = new FenwickTree(IntStream.range(0, n).map(i -> randInt()).toArray());
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int k = randInt();
+      int i = randTree.lowerBound(k);
+      assertThat(i).isBetween(1, n + 1);
+      if (i > 1) {
+        assertThat(randTree.query(i - 1)).isLessThan(k);
+      }
+    }
+  }
+
+  /*
+  Grows a tree by appending random values, interleaved with random updates,
+  and then does random range queries.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  @SuppressWarnings({"PMD.UnitTestShouldIncludeAssert"})
+  void testRandomAppend(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    int init = rand.nextInt(0, n);
+    FenwickTree tree = new FenwickTree(Arrays.copyOf(arr, init));
+
+    for (int i = init; i < n; i++) {
+      assertThat(tree.append(arr[i])).isEqualTo(i + 1);
+      int idx = rand.nextInt(1, i + 2);
+      int val = randInt();
+      arr[idx - 1] += val;
+      tree.add(idx, val);
+      doRandomRangeQuery(Arrays.copyOf(arr, i + 1), tree);
+    }
+    doRandomRangeQuery(arr, tree);
+    assertThat(tree.query(n)).isEqualTo(Arrays.stream(arr).sum());
+  }
+
+  @Test
+  void testEnsureCapacity() {
+    FenwickTree tree = new FenwickTree(0);
+    tree.ensureCapacity(100);
+    for (int i = 1; i <= 100; i++) {
+      tree.append(i);
+    }
+    assertThat(tree.query(100)).isEqualTo(5050);
+    assertThat(tree.queryRange(50, 51)).isEqualTo(101);
+    assertThat(tree.toString()).startsWith("[0, 1, 3, 3, 10,").endsWith("]");
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.ensureCapacity(-1));
+  }
+
+  @Test
+  void testIndexInSpareCapacity() {
+    FenwickTree tree = new FenwickTree(0);
+    tree.ensureCapacity(100);
+    for (int i = 1; i <= 10; i++) {
+      tree.append(i);
+    }
+    // The backing array is larger than the tree, but the spare nodes hold no values.
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(11));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, 11));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(11, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(11, 1));
+    assertThat(tree.append(11)).isEqualTo(11);
+    assertThat(tree.query(11)).isEqualTo(66);
+  }
+
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testExport(RepetitionInfo repInfo) {
+    int[] rands = randList(repInfo.getCurrentRepetition());
+    FenwickTree tree = new FenwickTree(rands);
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int idx = rand.nextInt(1, rands.length + 1);
+      int val = randInt();
+      rands[idx - 1] += val;
+      tree.add(idx, val);
+    }
+
+    assertThat(tree.toValues()).isEqualTo(rands);
+    assertThat(tree.toPrefixSums()).isEqualTo(prefixSums(rands));
+    assertThat(new FenwickTree(tree.toValues())).hasToString(tree.toString());
+  }
+
+  @Test
+  void testExportEmpty() {
+    FenwickTree tree = new FenwickTree(0);
+    assertThat(tree.toValues()).isEmpty();
+    assertThat(tree.toPrefixSums()).isEmpty();
+  }
+
+  /*
+  Answers random batches of range queries, whose sizes are chosen such that
+  the per-query, the prefix sum, and the parallel paths are all exercised.
+   */
+  @ParameterizedTest
+  @CsvSource({"1000, 10", "1000, 1000", "100, 10000", "100000, 100000"})
+  void testQueryRanges(int n, int m) {
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    FenwickTree tree = new FenwickTree(arr);
+    int[] lefts = new int[m];
+    int[] rights = new int[m];
+    for (int k = 0; k < m; k++) {
+      lefts[k] = rand.nextInt(1, n + 1);
+      rights[k] = rand.nextInt(lefts[k], n + 1);
+    }
+
+    int[] sums = new int[m];
+    tree.queryRanges(lefts, rights, sums);
+    for (int k = 0; k < m; k++) {
+      assertThat(sums[k]).isEqualTo(tree.queryRange(lefts[k], rights[k]));
+    }
+  }
+
+  @Test
+  void testInvalidQueryRanges() {
+    FenwickTree tree = new FenwickTree(new int[] {1, 2});
+    int[] one = {1};
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRanges(null, one, one));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.queryRanges(one, one, new int[2]));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.queryRanges(new int[] {2}, one, new int[1]));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.queryRanges(new int[] {0}, one, new int[1]));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> tree.queryRanges(one, new int[] {3}, new int[1]));
+  }
+
+  /*
+  Mirrors every operation on the int, long and double variants, and verifies
+  that they agree with each other.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testPrimitiveVariants(RepetitionInfo repInfo) {
+    int[] rands = randList(repInfo.getCurrentRepetition());
+    FenwickTree tree = new FenwickTree(rands);
+    LongFenwickTree longTree = new LongFenwickTree(Arrays.stream(rands).asLongStream().toArray());
+    DoubleFenwickTree doubleTree =
+        new DoubleFenwickTree(Arrays.stream(rands).asDoubleStream().toArray());
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int idx = rand.nextInt(1, rands.length + 1);
+      int val = randInt();
+      if (rand.nextBoolean()) {
+        tree.add(idx, val);
+        longTree.add(idx, val);
+        doubleTree.add(idx, val);
+      } else {
+        tree.set(idx, val);
+        longTree.set(idx, val);
+        doubleTree.set(idx, val);
+      }
+
+      int lo = rand.nextInt(1, rands.length + 1);
+      int hi = rand.nextInt(lo, rands.length + 1);
+      int expected = tree.queryRange(lo, hi);
+      assertThat(longTree.queryRange(lo, hi)).isEqualTo(expected);
+      assertThat(doubleTree.queryRange(lo, hi)).isCloseTo(expected, within(1e-6));
+      assertThat(longTree.query(hi)).isEqualTo(tree.query(hi));
+      assertThat(doubleTree.query(hi)).isCloseTo(tree.query(hi), within(1e-6));
+    }
+    assertThat(longTree.toValues())
+        .isEqualTo(Arrays.stream(tree.toValues()).asLongStream().toArray());
+    assertThat(longTree.toPrefixSums())
+        .isEqualTo(Arrays.stream(tree.toPrefixSums()).asLongStream().toArray());
+  }
+
+  @Test
+  void testLongDoesNotOverflow() {
+    int n = 100;
+    long[] arr = new long[n];
+    Arrays.fill(arr, Integer.MAX_VALUE);
+    LongFenwickTree tree = new LongFenwickTree(arr);
+
+    assertThat(tree.query(n)).isEqualTo((long) Integer.MAX_VALUE * n);
+    tree.add(1, Integer.MAX_VALUE);
+    assertThat(tree.queryRange(1, 2)).isEqualTo(3L * Integer.MAX_VALUE);
+    tree.set(n, Long.MAX_VALUE / 2);
+    assertThat(tree.queryRange(n, n)).isEqualTo(Long.MAX_VALUE / 2);
+  }
+
+  @Test
+  void testDoubleFractions() {
+    DoubleFenwickTree tree = new DoubleFenwickTree(new double[] {0.5, 0.25, 0.125});
+    assertThat(tree.query(3)).isEqualTo(0.875);
+    tree.add(2, 0.25);
+    assertThat(tree.queryRange(2, 3)).isEqualTo(0.625);
+    tree.set(1, 1.5);
+    assertThat(tree.query(3)).isEqualTo(2.125);
+  }
+
+  @Test
+  void testPrimitiveVariantsIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new LongFenwickTree(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new LongFenwickTree(-1));
+    assertThatIllegalArgumentException().isThrownBy(() -> new DoubleFenwickTree(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new DoubleFenwickTree(-1));
+
+    LongFenwickTree longTree = new LongFenwickTree(1);
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.query(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.add(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.set(-1, 1));
+
+    DoubleFenwickTree doubleTree = new DoubleFenwickTree(1);
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.query(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.queryRange(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.add(-1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.set(0, 1));
+  }
+
+  @Test
+  void testPrimitiveVariantsOutOfRange() {
+    LongFenwickTree longTree = new LongFenwickTree(new long[] {1, 2, 3});
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.query(4));
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.queryRange(1, 4));
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.add(4, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> longTree.set(4, 1));
+    assertThat(longTree.query(3)).isEqualTo(6);
+
+    DoubleFenwickTree doubleTree = new DoubleFenwickTree(new double[] {1, 2, 3});
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.query(4));
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.queryRange(1, 4));
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.add(4, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> doubleTree.set(4, 1));
+    assertThat(doubleTree.query(3)).isEqualTo(6);
+  }
+
   @Test
   void testIllegalConstructionNullArray() {
     assertThatIllegalArgumentException().isThrownBy(() -> new FenwickTree(null));
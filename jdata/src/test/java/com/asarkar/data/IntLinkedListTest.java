@@ -0,0 +1,107 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class IntLinkedListTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock = """
+    []
+    [1]
+    [1, 2]
+    [1, 2, 3, 4, 5]
+      """)
+  void testConversions(@ConvertWith(IterableConverter.class) List<Integer> nums) {
+    IntLinkedList list = IntLinkedList.fromIterable(nums);
+    assertThat(list.size()).isEqualTo(nums.size());
+    assertThat(list.toList()).isEqualTo(nums);
+
+    int[] arr = nums.stream().mapToInt(Integer::intValue).toArray();
+    assertThat(IntLinkedList.fromArray(arr).toArray()).isEqualTo(arr);
+
+    ListNode<Integer> head = list.toListNode();
+    if (nums.isEmpty()) {
+      assertThat(head).isNull();
+    } else {
+      assertThat(ListNode.toList(head)).isEqualTo(nums);
+    }
+    assertThat(IntLinkedList.fromListNode(head).toList()).isEqualTo(nums);
+  }
+
+  /*
+  Applies random insertions and removals to the list and to a java.util.LinkedList,
+  and compares them.
+   */
+  @RepeatedTest(value = 100, failureThreshold = 1)
+  void testRandomUpdates() {
+    IntLinkedList list = new IntLinkedList(rand.nextInt(4));
+    LinkedList<Integer> expected = new LinkedList<>();
+    List<Integer> nodes = new ArrayList<>();
+
+    for (int j = 0; j < LOOP_LIMIT; j++) {
+      int val = rand.nextInt();
+      int op = rand.nextInt(5);
+      if (expected.isEmpty() || op == 0) {
+        nodes.add(0, list.addFirst(val));
+        expected.addFirst(val);
+      } else if (op == 1) {
+        nodes.add(list.addLast(val));
+        expected.addLast(val);
+      } else if (op == 2) {
+        int i = rand.nextInt(expected.size());
+        nodes.add(i + 1, list.insertAfter(nodes.get(i), val));
+        expected.add(i + 1, val);
+      } else if (op == 3) {
+        nodes.remove(0);
+        assertThat(list.removeFirst()).isEqualTo(expected.removeFirst());
+      } else if (expected.size() > 1) {
+        int i = rand.nextInt(expected.size() - 1);
+        nodes.remove(i + 1);
+        assertThat(list.removeAfter(nodes.get(i))).isEqualTo(expected.remove(i + 1));
+      }
+
+      assertThat(list.size()).isEqualTo(expected.size());
+      if (!expected.isEmpty()) {
+        assertThat(list.head()).isEqualTo(nodes.get(0));
+        assertThat(list.tail()).isEqualTo(nodes.get(nodes.size() - 1));
+        assertThat(list.value(list.tail())).isEqualTo(expected.getLast());
+      }
+    }
+    assertThat(list.toList()).isEqualTo(expected);
+  }
+
+  @Test
+  void testNodesAreReused() {
+    IntLinkedList list = IntLinkedList.fromArray(new int[] {1, 2, 3});
+    int head = list.head();
+    list.removeFirst();
+    assertThat(list.addLast(4)).isEqualTo(head);
+    list.setValue(list.head(), 5);
+    assertThat(list).hasToString("[5, 3, 4]");
+  }
+
+  @Test
+  void testInvalidRemovals() {
+    IntLinkedList list = new IntLinkedList();
+    assertThatIllegalStateException().isThrownBy(list::removeFirst);
+    int node = list.addLast(1);
+    assertThatIllegalStateException().isThrownBy(() -> list.removeAfter(node));
+  }
+}
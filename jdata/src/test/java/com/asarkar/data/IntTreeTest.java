@@ -0,0 +1,76 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class IntTreeTest {
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+    []
+    [1]
+    [1, 2]
+    [1, 2, 3]
+    [1, null, 2]
+    [1, 2, null, 3]
+    [4, 2, 5, 1, 3]
+    [3, 1, 4, null, 2]
+    [1, 3, 2, 5, 3, null, 9]
+    [7, 3, 15, null, null, 9, 20]
+    [1, 2, 3, null, null, 4, 5, 6, 7]
+    [10, 5, 15, 3, 7, 13, 18, 1, null, 6]
+    [3, 5, 1, 6, 2, 0, 8, null, null, 7, 4]
+      """)
+  void testIntTree(@ConvertWith(IterableConverter.class) List<Integer> nums) {
+    IntTree tree = IntTree.fromList(nums);
+    assertThat(tree.levelOrder()).isEqualTo(nums);
+    assertThat(tree.size()).isEqualTo((int) nums.stream().filter(Objects::nonNull).count());
+
+    int[] arr = nums.stream().mapToInt(i -> Objects.requireNonNullElse(i, -1)).toArray();
+    assertThat(IntTree.fromArray(arr, -1).levelOrder()).isEqualTo(nums);
+
+    TreeNode<Integer> root = tree.toTreeNode();
+    if (nums.isEmpty()) {
+      assertThat(root).isNull();
+      assertThat(tree.root()).isEqualTo(IntTree.NIL);
+    } else {
+      assertThat(TreeNode.levelOrder(root)).isEqualTo(nums);
+      assertThat(tree.value(tree.root())).isEqualTo(nums.get(0));
+    }
+    assertThat(IntTree.fromTreeNode(root).levelOrder()).isEqualTo(nums);
+  }
+
+  @Test
+  void testBuildByHand() {
+    IntTree tree = new IntTree(0);
+    int root = tree.addNode(1);
+    int right = tree.addNode(3);
+    tree.setRoot(root);
+    tree.setRight(root, right);
+    tree.setLeft(right, tree.addNode(2));
+    assertThat(tree.levelOrder()).isEqualTo(Arrays.asList(1, null, 3, 2));
+
+    tree.setValue(tree.left(tree.right(root)), 4);
+    assertThat(tree).hasToString("[1, null, 3, 4]");
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new IntTree(-1));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> IntTree.fromList(Arrays.asList(1, null, null, 2)));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> IntTree.fromTreeNode(new TreeNode<>(null)));
+  }
+}
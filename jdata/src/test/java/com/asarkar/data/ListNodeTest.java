@@ -3,7 +3,11 @@ package com.asarkar.data;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.asarkar.junit.IterableConverter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.converter.ConvertWith;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -28,4 +32,36 @@ class ListNodeTest {
       assertThat(actual).isEqualTo(nums);
     }
   }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock = """
+    []
+    [1]
+    [1, 2, 3, 4, 5]
+      """)
+  void testIterable(@ConvertWith(IterableConverter.class) List<Integer> nums) {
+    ListNode<Integer> head = ListNode.fromIterable(nums);
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(nums);
+    if (head != null) {
+      List<Integer> actual = new ArrayList<>();
+      for (int val : head) {
+        actual.add(val);
+      }
+      assertThat(actual).isEqualTo(nums);
+      assertThat(head).containsExactlyElementsOf(nums);
+    }
+  }
+
+  @Test
+  void testParallelStream() {
+    List<Integer> nums = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+    ListNode<Integer> head = ListNode.fromIterable(nums);
+    assertThat(head.spliterator().trySplit()).isNotNull();
+    assertThat(ListNode.stream(head).parallel().map(i -> i * 2).collect(Collectors.toList()))
+        .isEqualTo(nums.stream().map(i -> i * 2).collect(Collectors.toList()));
+    assertThat(ListNode.stream(head).parallel().mapToLong(i -> i).sum())
+        .isEqualTo(100_000L * 99_999 / 2);
+  }
 }
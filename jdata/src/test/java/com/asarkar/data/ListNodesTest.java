@@ -0,0 +1,166 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ListNodesTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [] | []
+            [1] | [1]
+            [4, 2, 1, 3] | [1, 2, 3, 4]
+            [-1, 5, 3, 4, 0] | [-1, 0, 3, 4, 5]
+        """)
+  void testSort(
+      @ConvertWith(IterableConverter.class) List<Integer> nums,
+      @ConvertWith(IterableConverter.class) List<Integer> expected) {
+    ListNode<Integer> head = ListNodes.sort(ListNode.fromIterable(nums), Comparator.naturalOrder());
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(expected);
+  }
+
+  /*
+  Sorts a random list by a key that has many duplicates, and checks that the sort is stable,
+  and that it reuses the nodes of the list.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testRandomSort(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    List<Integer> nums = IntStream.range(0, n).mapToObj(i -> rand.nextInt(-100, 100)).toList();
+    Comparator<Integer> byTens = Comparator.comparingInt(i -> Math.floorDiv(i, 10));
+    ListNode<Integer> head = ListNode.fromIterable(nums);
+    Set<ListNode<Integer>> nodes = nodes(head);
+
+    head = ListNodes.sort(head, byTens);
+    List<Integer> expected = new ArrayList<>(nums);
+    expected.sort(byTens);
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(expected);
+    assertThat(nodes(head)).isEqualTo(nodes);
+  }
+
+  private static Set<ListNode<Integer>> nodes(ListNode<Integer> head) {
+    Set<ListNode<Integer>> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (ListNode<Integer> node = head; node != null; node = node.next) {
+      nodes.add(node);
+    }
+    return nodes;
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [] | [] | []
+            [1, 3, 5] | [] | [1, 3, 5]
+            [1, 3, 5] | [2, 4, 6, 8] | [1, 2, 3, 4, 5, 6, 8]
+            [1, 1] | [0, 1] | [0, 1, 1, 1]
+        """)
+  void testMerge(
+      @ConvertWith(IterableConverter.class) List<Integer> first,
+      @ConvertWith(IterableConverter.class) List<Integer> second,
+      @ConvertWith(IterableConverter.class) List<Integer> expected) {
+    ListNode<Integer> head =
+        ListNodes.merge(
+            ListNode.fromIterable(first), ListNode.fromIterable(second), Comparator.naturalOrder());
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(expected);
+  }
+
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testRandomMergeK() {
+    int k = rand.nextInt(10);
+    List<ListNode<Integer>> heads = new ArrayList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < k; i++) {
+      List<Integer> nums =
+          IntStream.range(0, rand.nextInt(20))
+              .map(j -> rand.nextInt(100))
+              .sorted()
+              .boxed()
+              .toList();
+      heads.add(ListNode.fromIterable(nums));
+      expected.addAll(nums);
+    }
+    Collections.sort(expected);
+
+    ListNode<Integer> head = ListNodes.mergeK(heads, Comparator.naturalOrder());
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [] | 2 | []
+            [1, 2, 3, 4, 5] | 1 | [1, 2, 3, 4, 5]
+            [1, 2, 3, 4, 5] | 2 | [2, 1, 4, 3, 5]
+            [1, 2, 3, 4, 5] | 3 | [3, 2, 1, 4, 5]
+            [1, 2, 3, 4, 5, 6] | 3 | [3, 2, 1, 6, 5, 4]
+            [1, 2, 3, 4, 5] | 5 | [5, 4, 3, 2, 1]
+            [1, 2, 3, 4, 5] | 6 | [1, 2, 3, 4, 5]
+        """)
+  void testReverseInGroups(
+      @ConvertWith(IterableConverter.class) List<Integer> nums,
+      int k,
+      @ConvertWith(IterableConverter.class) List<Integer> expected) {
+    ListNode<Integer> head = ListNodes.reverseInGroups(ListNode.fromIterable(nums), k);
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(expected);
+
+    List<Integer> reversed = new ArrayList<>(nums);
+    Collections.reverse(reversed);
+    head = ListNodes.reverse(ListNode.fromIterable(nums));
+    assertThat(ListNode.stream(head).collect(Collectors.toList())).isEqualTo(reversed);
+  }
+
+  @Test
+  void testCycle() {
+    assertThat(ListNodes.hasCycle(null)).isFalse();
+    ListNode<Integer> head = ListNode.fromIterable(List.of(1, 2, 3, 4, 5));
+    assertThat(ListNodes.hasCycle(head)).isFalse();
+    assertThat(ListNodes.cycleStart(head)).isNull();
+
+    for (int i = 0; i < 5; i++) {
+      ListNode<Integer> start = head;
+      for (int j = 0; j < i; j++) {
+        start = start.next;
+      }
+      ListNode<Integer> last = head;
+      while (last.next != null && last.next != start) {
+        last = last.next;
+      }
+      last.next = start;
+      assertThat(ListNodes.hasCycle(head)).isTrue();
+      assertThat(ListNodes.cycleStart(head)).isSameAs(start);
+      last.next = null;
+    }
+  }
+
+  @Test
+  void testInvalidGroupSize() {
+    assertThatIllegalArgumentException().isThrownBy(() -> ListNodes.reverseInGroups(null, 0));
+  }
+}
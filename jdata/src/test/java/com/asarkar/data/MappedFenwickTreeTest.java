@@ -0,0 +1,236 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MappedFenwickTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @TempDir
+  private Path tempDir;
+
+  /*
+  Adds or sets random values at random indices, reopens the file,
+  and verifies that the reopened tree answers the same queries.
+  Small chunks make sure that the nodes are spread over many mappings.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {5, 6, 30})
+  void testRandomUpdatesSurviveReopen(int chunkBits) throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    int n = 1000;
+    long[] arr = new long[n];
+
+    try (MappedFenwickTree tree = MappedFenwickTree.create(path, n, chunkBits)) {
+      for (int j = 0; j < LOOP_LIMIT; j++) {
+        int idx = rand.nextInt(1, n + 1);
+        long val = rand.nextLong(-1000, Integer.MAX_VALUE);
+        if (rand.nextBoolean()) {
+          arr[idx - 1] += val;
+          tree.add(idx, val);
+        } else {
+          arr[idx - 1] = val;
+          tree.set(idx, val);
+        }
+        doRandomRangeQuery(arr, tree);
+      }
+    }
+
+    try (MappedFenwickTree tree =
+        MappedFenwickTree.open(path, MappedFenwickTree.Recovery.VERIFY, chunkBits)) {
+      for (int j = 0; j < LOOP_LIMIT; j++) {
+        doRandomRangeQuery(arr, tree);
+      }
+      assertThat(tree.query(n)).isEqualTo(IntStream.range(0, n).mapToLong(i -> arr[i]).sum());
+    }
+  }
+
+  /*
+  Adds a distinct power of 2 at every index, so that every query result identifies exactly
+  the nodes that were summed up. The 32-byte header fills a chunk of 32 bytes, and half of
+  a chunk of 64 bytes. After that, there's a chunk boundary every 4 or 8 nodes, and the
+  sizes make the last chunk either full or partial.
+   */
+  @ParameterizedTest
+  @CsvSource({"5, 1", "5, 4", "5, 5", "6, 4", "6, 12", "6, 13"})
+  void testChunkBoundaries(int chunkBits, int n) throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    try (MappedFenwickTree tree = MappedFenwickTree.create(path, n, chunkBits)) {
+      for (int i = 1; i <= n; i++) {
+        tree.add(i, 1L << i);
+      }
+      for (int i = 1; i <= n; i++) {
+        assertThat(tree.queryRange(i, i)).isEqualTo(1L << i);
+        assertThat(tree.query(i)).isEqualTo((1L << (i + 1)) - 2);
+      }
+    }
+    assertThat(Files.size(path)).isEqualTo(32 + (long) n * Long.BYTES);
+
+    try (MappedFenwickTree tree = MappedFenwickTree.open(path)) {
+      assertThat(tree.query(n)).isEqualTo((1L << (n + 1)) - 2);
+    }
+  }
+
+  /*
+  A raw long tree written by FenwickTreeFormat opens in place, and a closed tree
+  reads back into a LongFenwickTree.
+   */
+  @Test
+  void testFenwickTreeFormat() throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    LongFenwickTree expected = new LongFenwickTree(new long[] {1, 2, 3, 4, 5});
+    try (FileChannel out =
+        FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      FenwickTreeFormat.write(expected, out, false);
+    }
+
+    try (MappedFenwickTree tree =
+        MappedFenwickTree.open(path, MappedFenwickTree.Recovery.REJECT, 5)) {
+      assertThat(tree.query(5)).isEqualTo(15);
+      assertThat(tree.queryRange(2, 4)).isEqualTo(9);
+      tree.add(3, 10);
+      expected.add(3, 10);
+      // The file is flagged as open, so it can't be read in the meantime.
+      assertThatIllegalArgumentException()
+          .isThrownBy(() -> FenwickTreeFormat.readLongFenwickTree(map(path)))
+          .withMessageContaining("open");
+    }
+
+    LongFenwickTree actual = FenwickTreeFormat.readLongFenwickTree(map(path));
+    assertThat(actual).hasToString(expected.toString());
+  }
+
+  /*
+  Sets the open flag, as if the process had crashed, and reopens the file with every
+  recovery mode, first with the nodes unchanged since the last clean close, and then
+  with a node that was changed after it.
+   */
+  @Test
+  void testNotClosedCleanly() throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    try (MappedFenwickTree tree = MappedFenwickTree.create(path, 4)) {
+      tree.add(1, 1);
+      tree.add(3, 3);
+    }
+    setOpenFlag(path);
+    assertThatThrownBy(() -> MappedFenwickTree.open(path, MappedFenwickTree.Recovery.REJECT))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("closed cleanly");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> FenwickTreeFormat.readLongFenwickTree(map(path)));
+    try (MappedFenwickTree tree = MappedFenwickTree.open(path)) {
+      assertThat(tree.query(4)).isEqualTo(4);
+    }
+    assertThat(FenwickTreeFormat.readLongFenwickTree(map(path)).query(4)).isEqualTo(4);
+
+    setOpenFlag(path);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      // Changes the lowest byte of node 3, which follows the header and two nodes, to 5.
+      channel.write(ByteBuffer.wrap(new byte[] {5}), 32 + 2 * Long.BYTES);
+    }
+    assertThatThrownBy(() -> MappedFenwickTree.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("modified");
+    try (MappedFenwickTree tree = MappedFenwickTree.open(path, MappedFenwickTree.Recovery.TRUST)) {
+      assertThat(tree.queryRange(3, 3)).isEqualTo(5);
+      assertThat(tree.query(3)).isEqualTo(6);
+    }
+    // The trusted tree was closed cleanly, with a checksum of the changed nodes.
+    assertThat(FenwickTreeFormat.readLongFenwickTree(map(path)).query(3)).isEqualTo(6);
+    try (MappedFenwickTree tree = MappedFenwickTree.open(path, MappedFenwickTree.Recovery.REJECT)) {
+      assertThat(tree.query(3)).isEqualTo(6);
+    }
+  }
+
+  @Test
+  void testInvalidFiles() throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    MappedFenwickTree.create(path, 1).close();
+    assertThatThrownBy(() -> MappedFenwickTree.create(path, 1))
+        .isInstanceOf(FileAlreadyExistsException.class);
+
+    Path garbage = Files.write(tempDir.resolve("garbage.bin"), new byte[32]);
+    assertThatThrownBy(() -> MappedFenwickTree.open(garbage)).isInstanceOf(IOException.class);
+
+    Path empty = Files.createFile(tempDir.resolve("empty.bin"));
+    assertThatThrownBy(() -> MappedFenwickTree.open(empty)).isInstanceOf(IOException.class);
+
+    Path compressed = tempDir.resolve("compressed.bin");
+    try (FileChannel out =
+        FileChannel.open(compressed, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      FenwickTreeFormat.write(new LongFenwickTree(new long[] {1, 2}), out, true);
+    }
+    assertThatThrownBy(() -> MappedFenwickTree.open(compressed))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("raw long");
+  }
+
+  @Test
+  void testIllegalArguments() throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    assertThatIllegalArgumentException().isThrownBy(() -> MappedFenwickTree.create(path, -1));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> MappedFenwickTree.create(path, Long.MAX_VALUE));
+
+    try (MappedFenwickTree tree = MappedFenwickTree.create(path, 1)) {
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.query(0));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(0, 1));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.add(0, 1));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.set(-1, 1));
+    }
+  }
+
+  @Test
+  void testOutOfRange() throws IOException {
+    Path path = tempDir.resolve("tree.bin");
+    try (MappedFenwickTree tree = MappedFenwickTree.create(path, 3, 5)) {
+      tree.add(3, 3);
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.query(4));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.query(Long.MAX_VALUE));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(1, 4));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.add(4, 1));
+      assertThatIllegalArgumentException().isThrownBy(() -> tree.set(4, 1));
+      assertThat(tree.query(3)).isEqualTo(3);
+    }
+  }
+
+  private static void setOpenFlag(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {FenwickTreeFormat.FLAG_OPEN}), 7);
+    }
+  }
+
+  private static ByteBuffer map(Path path) throws IOException {
+    try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+      return in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+    }
+  }
+
+  private void doRandomRangeQuery(long[] arr, MappedFenwickTree tree) {
+    int n = arr.length;
+    int lo = rand.nextInt(1, n + 1);
+    int hi = rand.nextInt(lo, n + 1);
+
+    long expected = IntStream.rangeClosed(lo, hi).mapToLong(i -> arr[i - 1]).sum();
+    assertThat(tree.queryRange(lo, hi)).isEqualTo(expected);
+  }
+}
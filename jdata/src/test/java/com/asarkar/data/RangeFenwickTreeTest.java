@@ -0,0 +1,115 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class RangeFenwickTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [1, 2, 3, 4, 5, 6] | 2 | 4 | 10 | [1, 12, 13, 14, 5, 6]
+            [-1, -2, -3, -4, -5, -6] | 1 | 6 | 1 | [0, -1, -2, -3, -4, -5]
+            [-76871, -164790] | 2 | 2 | 164790 | [-76871, 0]
+        """)
+  void testAddRange(
+      @ConvertWith(IterableConverter.class) int[] arr,
+      int left,
+      int right,
+      int val,
+      @ConvertWith(IterableConverter.class) int[] expected) {
+    RangeFenwickTree tree = new RangeFenwickTree(arr);
+    tree.addRange(left, right, val);
+
+    for (int i = 1; i <= arr.length; i++) {
+      assertThat(tree.queryRange(i, i)).isEqualTo(expected[i - 1]);
+      assertThat(tree.query(i)).isEqualTo(IntStream.range(0, i).map(j -> expected[j]).sum());
+    }
+  }
+
+  /*
+  Adds a random value to a random interval in the Fenwick Tree,
+  and then does random range queries.
+   */
+  @RepeatedTest(value = LOOP_LIMIT, failureThreshold = 1)
+  void testRandomAddRange(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    RangeFenwickTree tree = rand.nextBoolean() ? new RangeFenwickTree(arr) : fill(arr);
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int lo = rand.nextInt(1, n + 1);
+      int hi = rand.nextInt(lo, n + 1);
+      int val = randInt();
+      for (int i = lo; i <= hi; i++) {
+        arr[i - 1] += val;
+      }
+      tree.addRange(lo, hi, val);
+
+      lo = rand.nextInt(1, n + 1);
+      hi = rand.nextInt(lo, n + 1);
+      int expected = IntStream.rangeClosed(lo, hi).map(i -> arr[i - 1]).sum();
+      assertThat(tree.queryRange(lo, hi)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void testPointUpdates() {
+    RangeFenwickTree tree = new RangeFenwickTree(3);
+    tree.add(2, 5);
+    tree.set(3, 7);
+    tree.addRange(1, 3, 1);
+    tree.set(2, 0);
+
+    assertThat(tree.queryRange(1, 1)).isEqualTo(1);
+    assertThat(tree.queryRange(2, 2)).isZero();
+    assertThat(tree.queryRange(3, 3)).isEqualTo(8);
+    assertThat(tree.query(3)).isEqualTo(9);
+  }
+
+  @Test
+  void testIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new RangeFenwickTree(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new RangeFenwickTree(-1));
+
+    RangeFenwickTree tree = new RangeFenwickTree(2);
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.addRange(2, 1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.addRange(0, 1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(-1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.addRange(1, 3, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(3, 1));
+    tree.addRange(1, 2, 1);
+    assertThat(tree.query(2)).isEqualTo(2);
+  }
+
+  private RangeFenwickTree fill(int[] arr) {
+    RangeFenwickTree tree = new RangeFenwickTree(arr.length);
+    for (int i = 1; i <= arr.length; i++) {
+      tree.add(i, arr[i - 1]);
+    }
+    return tree;
+  }
+
+  private int randInt() {
+    return rand.nextInt(-1000, 3000);
+  }
+}
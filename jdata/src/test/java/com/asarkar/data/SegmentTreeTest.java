@@ -0,0 +1,142 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.Random;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SegmentTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [5, 2, 8, 1, 9, 3] | 1 | 6 | 1
+            [5, 2, 8, 1, 9, 3] | 1 | 3 | 2
+            [5, 2, 8, 1, 9, 3] | 5 | 6 | 3
+            [-1] | 1 | 1 | -1
+        """)
+  void testQueryRangeMin(
+      @ConvertWith(IterableConverter.class) int[] arr, int left, int right, int expected) {
+    SegmentTree tree =
+        new SegmentTree(arr, Math::min, Integer.MAX_VALUE, SegmentTree.RangeUpdate.add());
+    assertThat(tree.queryRange(left, right)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [1, 2, 3, 4, 5, 6] | 2 | 4 | 10 | 4 | 24
+            [1, 2, 3, 4, 5, 6] | 1 | 6 | 0 | 6 | 0
+            [-1, -2, -3] | 2 | 2 | 7 | 3 | 4
+        """)
+  void testAssignToSum(
+      @ConvertWith(IterableConverter.class) int[] arr,
+      int left,
+      int right,
+      int val,
+      int queryRight,
+      int expected) {
+    SegmentTree tree = new SegmentTree(arr, Integer::sum, 0, SegmentTree.RangeUpdate.assignToSum());
+    tree.updateRange(left, right, val);
+    assertThat(tree.queryRange(1, queryRight)).isEqualTo(expected);
+  }
+
+  /*
+  Applies random range updates and point sets to the Segment Tree, and checks
+  random range queries against brute force, for every combination of operation
+  and update.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 4, failureThreshold = 1)
+  void testRandomRangeUpdates(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    testRandom(n, Integer::sum, 0, SegmentTree.RangeUpdate.addToSum(), false);
+    testRandom(n, Integer::sum, 0, SegmentTree.RangeUpdate.assignToSum(), true);
+    testRandom(n, Math::min, Integer.MAX_VALUE, SegmentTree.RangeUpdate.add(), false);
+    testRandom(n, Math::max, Integer.MIN_VALUE, SegmentTree.RangeUpdate.assign(), true);
+  }
+
+  private void testRandom(
+      int n,
+      IntBinaryOperator combine,
+      int identity,
+      SegmentTree.RangeUpdate update,
+      boolean assign) {
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    SegmentTree tree =
+        rand.nextBoolean()
+            ? new SegmentTree(arr, combine, identity, update)
+            : fill(arr, combine, identity, update);
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      int lo = rand.nextInt(1, n + 1);
+      int hi = rand.nextInt(lo, n + 1);
+      int val = randInt();
+      if (rand.nextInt(4) == 0) {
+        arr[lo - 1] = val;
+        tree.set(lo, val);
+      } else {
+        for (int i = lo; i <= hi; i++) {
+          arr[i - 1] = assign ? val : arr[i - 1] + val;
+        }
+        tree.updateRange(lo, hi, val);
+      }
+
+      lo = rand.nextInt(1, n + 1);
+      hi = rand.nextInt(lo, n + 1);
+      int expected = IntStream.rangeClosed(lo, hi).map(i -> arr[i - 1]).reduce(identity, combine);
+      assertThat(tree.queryRange(lo, hi)).isEqualTo(expected);
+      assertThat(tree.get(lo)).isEqualTo(arr[lo - 1]);
+    }
+  }
+
+  private SegmentTree fill(
+      int[] arr, IntBinaryOperator combine, int identity, SegmentTree.RangeUpdate update) {
+    SegmentTree tree = new SegmentTree(arr.length, combine, identity, update);
+    for (int i = 0; i < arr.length; i++) {
+      tree.set(i + 1, arr[i]);
+    }
+    return tree;
+  }
+
+  private int randInt() {
+    return rand.nextInt(-1000, 1000);
+  }
+
+  @Test
+  void testToString() {
+    SegmentTree tree =
+        new SegmentTree(new int[] {1, 2, 3}, Integer::sum, 0, SegmentTree.RangeUpdate.addToSum());
+    tree.updateRange(2, 3, 10);
+    assertThat(tree).hasToString("[1, 12, 13]");
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SegmentTree(-1, Integer::sum, 0, SegmentTree.RangeUpdate.add()));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SegmentTree((int[]) null, Integer::sum, 0, null));
+
+    SegmentTree tree = new SegmentTree(3, Integer::sum, 0, SegmentTree.RangeUpdate.addToSum());
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.get(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(4, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.updateRange(1, 4, 1));
+  }
+}
@@ -0,0 +1,173 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SlidingWindowHistogramTest {
+  private static final int LOOP_LIMIT = 1000;
+  private static final double[] PERCENTILES = {0, 50, 90, 99, 99.9, 100};
+
+  private final Random rand = new Random();
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void testExactBuckets() {
+    SlidingWindowHistogram histogram =
+        new SlidingWindowHistogram(1000, 10, 1, Duration.ofSeconds(1), 1, clock::get);
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    assertThat(histogram.count()).isEqualTo(100);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(1);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(50);
+    assertThat(histogram.valueAtPercentile(99)).isEqualTo(99);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(100);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4})
+  void testExpiry(int stripes) {
+    SlidingWindowHistogram histogram =
+        new SlidingWindowHistogram(1000, 10, 2, Duration.ofNanos(10), stripes, clock::get);
+    assertThat(histogram.valueAtPercentile(50)).isZero();
+    histogram.record(100);
+    clock.set(10);
+    histogram.record(200);
+    assertThat(histogram.count()).isEqualTo(2);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(100);
+
+    clock.set(20);
+    assertThat(histogram.count()).isEqualTo(1);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(200);
+
+    clock.set(45);
+    assertThat(histogram.count()).isZero();
+    histogram.record(300);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(300);
+  }
+
+  /*
+  The window tags wrap around after 2^24 windows of a slot, so a node that hasn't been
+  touched since then would look like it belongs to the current window, unless it has been
+  retagged.
+   */
+  @Test
+  void testTagWrapAround() {
+    SlidingWindowHistogram histogram =
+        new SlidingWindowHistogram(1000, 10, 1, Duration.ofNanos(1), 1, clock::get);
+    histogram.record(100);
+    clock.set(1L << 24);
+    histogram.record(200);
+    assertThat(histogram.count()).isEqualTo(1);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(200);
+
+    clock.set((1L << 22) * 5 - 1);
+    histogram.record(300);
+    clock.incrementAndGet();
+    assertThat(histogram.count()).isZero();
+    histogram.record(400);
+    assertThat(histogram.count()).isEqualTo(1);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(400);
+  }
+
+  /*
+  Records random values at random times, and checks the percentiles of the sliding window
+  against the sorted samples, within the precision of the buckets.
+   */
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  void testRandomPercentiles(RepetitionInfo repInfo) {
+    int precisionBits = repInfo.getCurrentRepetition() % 12 + 1;
+    long maxValue = rand.nextBoolean() ? Long.MAX_VALUE : rand.nextLong(1, 1L << 40);
+    int windows = rand.nextInt(1, 5);
+    SlidingWindowHistogram histogram =
+        new SlidingWindowHistogram(
+            maxValue,
+            precisionBits,
+            windows,
+            Duration.ofNanos(100),
+            rand.nextInt(1, 5),
+            clock::get);
+    List<long[]> samples = new ArrayList<>();
+
+    for (int j = 0; j < LOOP_LIMIT; j++) {
+      clock.addAndGet(rand.nextInt(3));
+      long value = (long) Math.exp(rand.nextDouble() * Math.log(1L << 40));
+      histogram.record(value);
+      samples.add(new long[] {clock.get() / 100, Math.min(value, maxValue)});
+
+      long window = clock.get() / 100;
+      long[] live =
+          samples.stream()
+              .filter(s -> s[0] > window - windows)
+              .mapToLong(s -> s[1])
+              .sorted()
+              .toArray();
+      assertThat(histogram.count()).isEqualTo(live.length);
+      for (double percentile : PERCENTILES) {
+        int rank = (int) Math.max(1, Math.ceil(percentile / 100 * live.length));
+        long exact = live[rank - 1];
+        assertThat(histogram.valueAtPercentile(percentile))
+            .isBetween(exact, exact + (exact >>> (precisionBits - 1)));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 8})
+  void testConcurrentRecords(int stripes) throws InterruptedException {
+    SlidingWindowHistogram histogram =
+        new SlidingWindowHistogram(1000, 10, 1, Duration.ofSeconds(1), stripes, clock::get);
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(
+          () -> {
+            for (int i = 0; i < LOOP_LIMIT; i++) {
+              histogram.record(i);
+            }
+          });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+    assertThat(histogram.count()).isEqualTo((long) threads * LOOP_LIMIT);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(LOOP_LIMIT / 2 - 1);
+  }
+
+  @Test
+  void testInvalidArguments() {
+    Duration window = Duration.ofSeconds(1);
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SlidingWindowHistogram(0, 8, 1, window));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SlidingWindowHistogram(100, 21, 1, window));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SlidingWindowHistogram(100, 8, 0, window));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SlidingWindowHistogram(100, 8, 1, Duration.ZERO));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SlidingWindowHistogram(100, 8, 1, window, 0));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new SlidingWindowHistogram(Long.MAX_VALUE, 20, 1 << 20, window, 1));
+
+    SlidingWindowHistogram histogram = new SlidingWindowHistogram(100, 8, 1, window);
+    assertThatIllegalArgumentException().isThrownBy(() -> histogram.record(-1));
+    assertThatIllegalArgumentException().isThrownBy(() -> histogram.valueAtPercentile(100.1));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> histogram.valueAtPercentile(Double.NaN));
+  }
+}
@@ -0,0 +1,78 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class SparseFenwickTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @Test
+  void testSparseKeys() {
+    long[] keys = {Long.MAX_VALUE, -5, 1_700_000_000_000L, Long.MIN_VALUE, -5};
+    SparseFenwickTree tree = new SparseFenwickTree(keys);
+    tree.add(Long.MIN_VALUE, 1);
+    tree.add(-5, 2);
+    tree.add(1_700_000_000_000L, 4);
+    tree.set(Long.MAX_VALUE, 8);
+
+    assertThat(tree.query(Long.MIN_VALUE)).isEqualTo(1);
+    assertThat(tree.query(-6)).isEqualTo(1);
+    assertThat(tree.query(0)).isEqualTo(3);
+    assertThat(tree.query(Long.MAX_VALUE)).isEqualTo(15);
+    assertThat(tree.queryRange(-5, Long.MAX_VALUE)).isEqualTo(14);
+    assertThat(tree.queryRange(-4, 1_700_000_000_000L)).isEqualTo(4);
+    assertThat(tree.queryRange(0, 0)).isZero();
+  }
+
+  /*
+  Updates random keys from a random key set, and compares range queries
+  with a brute force sum over a map.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testRandomQueries() {
+    long[] keys = rand.longs(rand.nextInt(1, LOOP_LIMIT), -LOOP_LIMIT, LOOP_LIMIT).toArray();
+    SparseFenwickTree tree = new SparseFenwickTree(keys);
+    Map<Long, Long> values = new HashMap<>();
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      long key = keys[rand.nextInt(keys.length)];
+      long val = rand.nextLong(-1000, 3000);
+      if (rand.nextBoolean()) {
+        values.merge(key, val, Long::sum);
+        tree.add(key, val);
+      } else {
+        values.put(key, val);
+        tree.set(key, val);
+      }
+
+      long lo = rand.nextLong(-LOOP_LIMIT - 1, LOOP_LIMIT + 1);
+      long hi = rand.nextLong(lo, LOOP_LIMIT + 2);
+      long expected = values.entrySet().stream()
+          .filter(e -> e.getKey() >= lo && e.getKey() <= hi)
+          .mapToLong(Map.Entry::getValue)
+          .sum();
+      assertThat(tree.queryRange(lo, hi)).isEqualTo(expected);
+    }
+    long total = values.values().stream().mapToLong(Long::longValue).sum();
+    assertThat(tree.query(Arrays.stream(keys).max().orElseThrow())).isEqualTo(total);
+  }
+
+  @Test
+  void testIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new SparseFenwickTree(null));
+
+    SparseFenwickTree tree = new SparseFenwickTree(new long[] {1, 3});
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(4, 1));
+  }
+}
@@ -0,0 +1,68 @@
+package com.asarkar.data;
+
+import java.util.Random;
+
+/**
+ * Compares the latency of random range queries on a {@link SparseTable} with
+ * {@link FenwickTree#queryRange(int, int)}, and with range minimum queries on a
+ * {@link SegmentTree}, for {@code 10^4}, {@code 10^5}, and {@code 10^6} values. The
+ * Fenwick Tree answers sums rather than minimums, but its queries have the same access
+ * pattern as any {@code O(log n)} structure; the Segment Tree answers the same queries as
+ * the Sparse Table, and is used to check the results. See {@link Benchmark} for how to run
+ * it.
+ */
+final class SparseTableBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int OPS = 1_000_000;
+
+  private SparseTableBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    Random rand = new Random(42);
+    for (int n : SIZES) {
+      int[] values = rand.ints(n).toArray();
+      int[] lefts = new int[OPS];
+      int[] rights = new int[OPS];
+      for (int k = 0; k < OPS; k++) {
+        lefts[k] = rand.nextInt(1, n + 1);
+        rights[k] = rand.nextInt(lefts[k], n + 1);
+      }
+
+      Benchmark.header("n = " + n + ", " + OPS + " queries per run");
+      Benchmark.run("SparseTable build, per value", n, () -> SparseTable.min(values).size);
+      Benchmark.run("FenwickTree build, per value", n, () -> new FenwickTree(values).size);
+      SparseTable table = SparseTable.min(values);
+      FenwickTree tree = new FenwickTree(values);
+      SegmentTree segmentTree =
+          new SegmentTree(values, Math::min, Integer.MAX_VALUE, SegmentTree.RangeUpdate.add());
+
+      long expected = Benchmark.run("SegmentTree.queryRange, min", OPS, () -> {
+        long sum = 0;
+        for (int k = 0; k < OPS; k++) {
+          sum += segmentTree.queryRange(lefts[k], rights[k]);
+        }
+        return sum;
+      });
+      long actual = Benchmark.run("SparseTable.queryRange, min", OPS, () -> {
+        long sum = 0;
+        for (int k = 0; k < OPS; k++) {
+          sum += table.queryRange(lefts[k], rights[k]);
+        }
+        return sum;
+      });
+      Benchmark.check(expected, actual);
+      Benchmark.run("FenwickTree.queryRange, sum", OPS, () -> {
+        long sum = 0;
+        for (int k = 0; k < OPS; k++) {
+          sum += tree.queryRange(lefts[k], rights[k]);
+        }
+        return sum;
+      });
+    }
+  }
+}
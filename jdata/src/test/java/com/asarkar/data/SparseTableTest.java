@@ -0,0 +1,98 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SparseTableTest {
+  private static final int LOOP_LIMIT = 1000;
+
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+            [5, 2, 8, 1, 9, 3] | 1 | 6 | 1 | 9
+            [5, 2, 8, 1, 9, 3] | 1 | 3 | 2 | 8
+            [5, 2, 8, 1, 9, 3] | 5 | 6 | 3 | 9
+            [5, 2, 8, 1, 9, 3] | 4 | 4 | 1 | 1
+            [-1] | 1 | 1 | -1 | -1
+        """)
+  void testQueryRange(
+      @ConvertWith(IterableConverter.class) int[] arr,
+      int left,
+      int right,
+      int expectedMin,
+      int expectedMax) {
+    assertThat(SparseTable.min(arr).queryRange(left, right)).isEqualTo(expectedMin);
+    assertThat(SparseTable.max(arr).queryRange(left, right)).isEqualTo(expectedMax);
+  }
+
+  /*
+  Builds a Sparse Table over random values, and checks every interval against brute force.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testRandomQueryRange(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int[] arr = IntStream.range(0, n).map(i -> rand.nextInt(-1000, 1000)).toArray();
+    SparseTable min = SparseTable.min(arr);
+    SparseTable gcd = new SparseTable(arr, SparseTableTest::gcd);
+
+    for (int lo = 1; lo <= n; lo++) {
+      for (int hi = lo; hi <= n; hi++) {
+        int[] range = Arrays.copyOfRange(arr, lo - 1, hi);
+        assertThat(min.queryRange(lo, hi)).isEqualTo(Arrays.stream(range).min().getAsInt());
+        assertThat(gcd.queryRange(lo, hi))
+            .isEqualTo(Arrays.stream(range).reduce(0, SparseTableTest::gcd));
+      }
+    }
+  }
+
+  private static int gcd(int a, int b) {
+    return b == 0 ? Math.abs(a) : gcd(b, a % b);
+  }
+
+  @Test
+  void testImmutable() {
+    int[] arr = {3, 1, 2};
+    SparseTable table = SparseTable.min(arr);
+    arr[1] = 5;
+    assertThat(table.queryRange(1, 3)).isEqualTo(1);
+    assertThat(table).hasToString("[3, 1, 2]");
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> SparseTable.min(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new SparseTable(new int[0], null));
+
+    SparseTable table = SparseTable.max(new int[] {1, 2, 3});
+    assertThatIllegalArgumentException().isThrownBy(() -> table.queryRange(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> table.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> table.queryRange(1, 4));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> SparseTable.min(new int[0]).queryRange(1, 1));
+  }
+
+  @Test
+  void testTableLength() {
+    assertThat(SparseTable.length(0)).isZero();
+    assertThat(SparseTable.length(5)).isEqualTo(15);
+    // 28 levels of 2^27 values overflow an int.
+    assertThat(SparseTable.length((1 << 26) + 1)).isEqualTo(27 * ((1 << 26) + 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> SparseTable.length(1 << 27));
+    assertThatIllegalArgumentException().isThrownBy(() -> SparseTable.length(Integer.MAX_VALUE));
+  }
+}
@@ -0,0 +1,82 @@
+package com.asarkar.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares sequential folds, {@code TreeFolds.fold(root, empty, folder, 0)}, with parallel
+ * folds at the default depth of {@link TreeFolds#fold(TreeNode, Object, TreeFolds.Folder)},
+ * and at a much larger depth, on a balanced and a degenerate tree of {@code 2^22 - 1} nodes.
+ * The folds compute the sum of the node values, and the size of the tree. The speedup, or
+ * the overhead of forking, depends on the parallelism of the common {@link ForkJoinPool},
+ * which is printed first. See {@link Benchmark} for how to run it.
+ */
+@SuppressWarnings("PMD.SystemPrintln")
+final class TreeFoldsBenchmark {
+  private static final int NODES = (1 << 22) - 1;
+  private static final int DEEP = 16;
+
+  private TreeFoldsBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    int parallelism = ForkJoinPool.getCommonPoolParallelism();
+    System.out.println(
+        "available processors = " + Runtime.getRuntime().availableProcessors()
+            + ", common pool parallelism = " + parallelism);
+    Random rand = new Random(42);
+    benchmark("balanced tree, " + NODES + " nodes", balanced(rand));
+    benchmark("degenerate tree, " + NODES + " nodes", degenerate(rand));
+  }
+
+  private static void benchmark(String title, TreeNode<Integer> root) {
+    Benchmark.header(title);
+    TreeFolds.Folder<Integer, Long> sum = (val, left, right) -> left + val + right;
+    TreeFolds.Folder<Integer, Integer> size = (val, left, right) -> left + 1 + right;
+
+    long expected =
+        Benchmark.run("sum, depth 0", NODES, () -> TreeFolds.fold(root, 0L, sum, 0));
+    Benchmark.check(expected, Benchmark.run(
+        "sum, default depth", NODES, () -> TreeFolds.fold(root, 0L, sum)));
+    Benchmark.check(expected, Benchmark.run(
+        "sum, depth " + DEEP, NODES, () -> TreeFolds.fold(root, 0L, sum, DEEP)));
+    expected = Benchmark.run("size, depth 0", NODES, () -> TreeFolds.fold(root, 0, size, 0));
+    Benchmark.check(expected, Benchmark.run(
+        "size, default depth", NODES, () -> TreeFolds.fold(root, 0, size)));
+    Benchmark.check(expected, Benchmark.run(
+        "size, depth " + DEEP, NODES, () -> TreeFolds.fold(root, 0, size, DEEP)));
+  }
+
+  // Returns a complete binary tree, where the children of node k are the nodes 2k + 1 and
+  // 2k + 2.
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  private static TreeNode<Integer> balanced(Random rand) {
+    List<TreeNode<Integer>> nodes = new ArrayList<>(NODES);
+    for (int k = 0; k < NODES; k++) {
+      nodes.add(new TreeNode<>(rand.nextInt(100)));
+    }
+    for (int k = 0; 2 * k + 2 < NODES; k++) {
+      nodes.get(k).left = nodes.get(2 * k + 1);
+      nodes.get(k).right = nodes.get(2 * k + 2);
+    }
+    return nodes.get(0);
+  }
+
+  // Returns a tree where every node except the last one only has a right child.
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  private static TreeNode<Integer> degenerate(Random rand) {
+    TreeNode<Integer> root = new TreeNode<>(rand.nextInt(100));
+    TreeNode<Integer> node = root;
+    for (int k = 1; k < NODES; k++) {
+      node.right = new TreeNode<>(rand.nextInt(100));
+      node = node.right;
+    }
+    return root;
+  }
+}
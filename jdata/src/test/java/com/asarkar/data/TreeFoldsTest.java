@@ -0,0 +1,110 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TreeFoldsTest {
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+    [] | 0 | 0 | 0
+    [1] | 1 | 1 | 1
+    [1, null, 2, 3] | 3 | 3 | 6
+    [4, 2, 6, 1, 3, 5, 7] | 7 | 3 | 28
+    [3, 5, 1, 6, 2, 0, 8, null, null, 7, 4] | 9 | 4 | 36
+      """)
+  void testFold(
+      @ConvertWith(IterableConverter.class) List<Integer> nums, int size, int height, int sum) {
+    TreeNode<Integer> root = TreeNode.fromList(nums);
+    for (int depth = 0; depth < 4; depth++) {
+      assertThat(TreeFolds.<Integer, Integer>fold(root, 0, (val, l, r) -> 1 + l + r, depth))
+          .isEqualTo(size);
+      assertThat(
+              TreeFolds.<Integer, Integer>fold(root, 0, (val, l, r) -> 1 + Math.max(l, r), depth))
+          .isEqualTo(height);
+    }
+    assertThat(TreeFolds.reduce(root, val -> val, 0, Integer::sum)).isEqualTo(sum);
+  }
+
+  /*
+  Folds random trees with a non-commutative combiner, and checks that the values are
+  combined in in-order.
+   */
+  @RepeatedTest(value = 100, failureThreshold = 1)
+  void testRandomReduce(RepetitionInfo repInfo) {
+    TreeNode<Integer> root = randomTree(repInfo.getCurrentRepetition() * 10);
+    List<Integer> inOrder =
+        TreeNodes.stream(root, TreeNodes.Order.IN_ORDER).collect(Collectors.toList());
+
+    List<Integer> actual =
+        TreeFolds.reduce(
+            root,
+            List::of,
+            List.of(),
+            (a, b) -> {
+              List<Integer> list = new ArrayList<>(a);
+              list.addAll(b);
+              return list;
+            });
+    assertThat(actual).isEqualTo(inOrder);
+  }
+
+  private TreeNode<Integer> randomTree(int n) {
+    List<TreeNode<Integer>> nodes = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      TreeNode<Integer> node = new TreeNode<>(i);
+      while (!nodes.isEmpty()) {
+        TreeNode<Integer> parent = nodes.get(rand.nextInt(nodes.size()));
+        if (rand.nextBoolean() && parent.left == null) {
+          parent.left = node;
+          break;
+        } else if (parent.right == null) {
+          parent.right = node;
+          break;
+        }
+      }
+      nodes.add(node);
+    }
+    return nodes.isEmpty() ? null : nodes.get(0);
+  }
+
+  @Test
+  void testDegenerateTree() {
+    int n = 1_000_000;
+    TreeNode<Integer> root = new TreeNode<>(0);
+    TreeNode<Integer> node = root;
+    for (int i = 1; i < n; i++) {
+      node.right = new TreeNode<>(i);
+      node = node.right;
+    }
+    assertThat(TreeFolds.<Integer, Integer>fold(root, 0, (val, l, r) -> 1 + Math.max(l, r)))
+        .isEqualTo(n);
+    assertThat(TreeFolds.reduce(root, val -> (long) val, 0L, Long::sum))
+        .isEqualTo((long) n * (n - 1) / 2);
+  }
+
+  @Test
+  void testNullResults() {
+    TreeNode<Integer> root = TreeNode.fromList(List.of(1, 2, 3));
+    assertThat(TreeFolds.<Integer, Integer>fold(root, null, (val, l, r) -> l == null ? r : l, 0))
+        .isNull();
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> TreeFolds.fold(root, 0, (val, l, r) -> 0, -1));
+  }
+}
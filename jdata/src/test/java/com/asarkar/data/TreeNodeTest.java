@@ -3,7 +3,12 @@ package com.asarkar.data;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.asarkar.junit.IterableConverter;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.converter.ConvertWith;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -38,5 +43,22 @@ class TreeNodeTest {
       List<Integer> actual = TreeNode.levelOrder(root);
       assertThat(actual).isEqualTo(nums);
     }
+
+    int[] arr = nums.stream().mapToInt(i -> Objects.requireNonNullElse(i, -1)).toArray();
+    assertThat(TreeNode.levelOrder(TreeNode.fromArray(arr, -1))).isEqualTo(nums);
+  }
+
+  @Test
+  @SuppressWarnings("PMD.CloseResource")
+  void testFromListIsQuiet() {
+    PrintStream out = System.out;
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+    try {
+      TreeNode.fromList(List.of(1, 2, 3));
+    } finally {
+      System.setOut(out);
+    }
+    assertThat(bytes.toString(StandardCharsets.UTF_8)).isEmpty();
   }
 }
@@ -0,0 +1,143 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.asarkar.data.TreeNodes.Order;
+import com.asarkar.junit.IterableConverter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TreeNodesTest {
+  private final Random rand = new Random();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock =
+          """
+    [] | [] | [] | []
+    [1] | [1] | [1] | [1]
+    [1, null, 2, 3] | [1, 2, 3] | [1, 3, 2] | [3, 2, 1]
+    [4, 2, 6, 1, 3, 5, 7] | [4, 2, 1, 3, 6, 5, 7] | [1, 2, 3, 4, 5, 6, 7] | [1, 3, 2, 5, 7, 6, 4]
+      """)
+  void testTraversals(
+      @ConvertWith(IterableConverter.class) List<Integer> nums,
+      @ConvertWith(IterableConverter.class) List<Integer> preOrder,
+      @ConvertWith(IterableConverter.class) List<Integer> inOrder,
+      @ConvertWith(IterableConverter.class) List<Integer> postOrder) {
+    TreeNode<Integer> root = TreeNode.fromList(nums);
+    assertThat(traverse(root, Order.PRE_ORDER)).isEqualTo(preOrder);
+    assertThat(traverse(root, Order.MORRIS_PRE_ORDER)).isEqualTo(preOrder);
+    assertThat(traverse(root, Order.IN_ORDER)).isEqualTo(inOrder);
+    assertThat(traverse(root, Order.MORRIS_IN_ORDER)).isEqualTo(inOrder);
+    assertThat(traverse(root, Order.POST_ORDER)).isEqualTo(postOrder);
+    assertThat(traverse(root, Order.LEVEL_ORDER))
+        .isEqualTo(nums.stream().filter(Objects::nonNull).toList());
+    assertThat(TreeNode.levelOrder(root)).isEqualTo(nums);
+  }
+
+  private static List<Integer> traverse(TreeNode<Integer> root, Order order) {
+    List<Integer> values = new ArrayList<>();
+    TreeNodes.iterator(root, order).forEachRemaining(values::add);
+    return values;
+  }
+
+  /*
+  Compares every traversal of a random tree with a recursive traversal, and checks that the
+  Morris traversals restore the tree.
+   */
+  @RepeatedTest(value = 100, failureThreshold = 1)
+  void testRandomTrees() {
+    TreeNode<Integer> root = randomTree(rand.nextInt(100));
+    List<Integer> shape = TreeNode.levelOrder(root);
+    List<Integer> pre = new ArrayList<>();
+    List<Integer> in = new ArrayList<>();
+    List<Integer> post = new ArrayList<>();
+    recurse(root, pre, in, post);
+
+    assertThat(traverse(root, Order.PRE_ORDER)).isEqualTo(pre);
+    assertThat(traverse(root, Order.IN_ORDER)).isEqualTo(in);
+    assertThat(traverse(root, Order.POST_ORDER)).isEqualTo(post);
+    assertThat(traverse(root, Order.MORRIS_PRE_ORDER)).isEqualTo(pre);
+    assertThat(TreeNode.levelOrder(root)).isEqualTo(shape);
+    assertThat(traverse(root, Order.MORRIS_IN_ORDER)).isEqualTo(in);
+    assertThat(TreeNode.levelOrder(root)).isEqualTo(shape);
+  }
+
+  private TreeNode<Integer> randomTree(int n) {
+    List<TreeNode<Integer>> nodes = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      TreeNode<Integer> node = new TreeNode<>(i);
+      while (!nodes.isEmpty()) {
+        TreeNode<Integer> parent = nodes.get(rand.nextInt(nodes.size()));
+        if (rand.nextBoolean() && parent.left == null) {
+          parent.left = node;
+          break;
+        } else if (parent.right == null) {
+          parent.right = node;
+          break;
+        }
+      }
+      nodes.add(node);
+    }
+    return nodes.isEmpty() ? null : nodes.get(0);
+  }
+
+  private static void recurse(
+      TreeNode<Integer> node, List<Integer> pre, List<Integer> in, List<Integer> post) {
+    if (node != null) {
+      pre.add(node.val);
+      recurse(node.left, pre, in, post);
+      in.add(node.val);
+      recurse(node.right, pre, in, post);
+      post.add(node.val);
+    }
+  }
+
+  @Test
+  void testDegenerateTree() {
+    int n = 1_000_000;
+    TreeNode<Integer> root = new TreeNode<>(0);
+    TreeNode<Integer> node = root;
+    for (int i = 1; i < n; i++) {
+      node.left = new TreeNode<>(i);
+      node = node.left;
+    }
+    for (Order order : Order.values()) {
+      assertThat(traverse(root, order)).hasSize(n);
+    }
+    assertThat(TreeNodes.stream(root, Order.POST_ORDER).findFirst()).hasValue(n - 1);
+  }
+
+  @Test
+  void testShortCircuit() {
+    List<Integer> nums = Arrays.asList(4, 2, 6, 1, 3, 5, 7);
+    TreeNode<Integer> root = TreeNode.fromList(nums);
+    assertThat(TreeNodes.stream(root, Order.IN_ORDER).filter(i -> i > 2).findFirst())
+        .hasValue(3);
+    assertThat(TreeNodes.stream(root, Order.PRE_ORDER).findFirst()).hasValue(4);
+    assertThat(TreeNode.levelOrder(root)).isEqualTo(nums);
+
+    // A short-circuited Morris traversal would leave threads in the tree.
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> TreeNodes.stream(root, Order.MORRIS_IN_ORDER));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> TreeNodes.spliterator(root, Order.MORRIS_PRE_ORDER));
+
+    Iterator<Integer> iterator = TreeNodes.iterator(null, Order.LEVEL_ORDER);
+    assertThat(iterator.hasNext()).isFalse();
+    assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(iterator::next);
+  }
+}
@@ -0,0 +1,110 @@
+package com.asarkar.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares building and traversing an {@link UnrolledListNode} list with a {@link ListNode}
+ * list of the same values, for {@code 10^4}, {@code 10^5}, and {@code 10^6} values. A list is
+ * built with {@code fromIterable}, and traversed with a for-each loop over its values, and
+ * with {@code toList}. Nodes that are allocated one after the other usually end up next to
+ * each other in memory, so the {@link ListNode} list is also traversed after linking its
+ * nodes in random order, which is what a list that has been modified for a while looks
+ * like. A copying garbage collector may move those nodes back next to each other, so that
+ * measurement runs right after the list is built. See {@link Benchmark} for how to run it.
+ */
+final class UnrolledListNodeBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  // Every run visits this many values, so that the small lists get as much warmup.
+  private static final int VALUES_PER_RUN = 10_000_000;
+
+  private UnrolledListNodeBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    Random rand = new Random(42);
+    for (int n : SIZES) {
+      List<Integer> values = new ArrayList<>(n);
+      for (int k = 0; k < n; k++) {
+        values.add(rand.nextInt());
+      }
+
+      int reps = VALUES_PER_RUN / n;
+      Benchmark.header("n = " + n + ", " + reps + " lists per run");
+      Benchmark.run("ListNode.fromIterable, per value", VALUES_PER_RUN, () -> {
+        long sum = 0;
+        for (int r = 0; r < reps; r++) {
+          sum += ListNode.fromIterable(values).val;
+        }
+        return sum;
+      });
+      Benchmark.run("UnrolledListNode.fromIterable, per value", VALUES_PER_RUN, () -> {
+        long sum = 0;
+        for (int r = 0; r < reps; r++) {
+          sum += UnrolledListNode.fromIterable(values).get(0);
+        }
+        return sum;
+      });
+
+      ListNode<Integer> list = ListNode.fromIterable(values);
+      ListNode<Integer> shuffled = shuffled(values, rand);
+      UnrolledListNode<Integer> unrolled = UnrolledListNode.fromIterable(values);
+      long expected = Benchmark.run(
+          "ListNode iteration, per value", VALUES_PER_RUN, () -> sum(list, reps));
+      Benchmark.check(expected, Benchmark.run(
+          "ListNode iteration, random order, per value",
+          VALUES_PER_RUN,
+          () -> sum(shuffled, reps)));
+      Benchmark.check(expected, Benchmark.run(
+          "UnrolledListNode iteration, per value", VALUES_PER_RUN, () -> sum(unrolled, reps)));
+      Benchmark.run("ListNode.toList, per value", VALUES_PER_RUN, () -> {
+        long sum = 0;
+        for (int r = 0; r < reps; r++) {
+          sum += ListNode.toList(list).size();
+        }
+        return sum;
+      });
+      Benchmark.run("UnrolledListNode.toList, per value", VALUES_PER_RUN, () -> {
+        long sum = 0;
+        for (int r = 0; r < reps; r++) {
+          sum += UnrolledListNode.toList(unrolled).size();
+        }
+        return sum;
+      });
+    }
+  }
+
+  private static long sum(Iterable<Integer> list, int reps) {
+    long sum = 0;
+    for (int r = 0; r < reps; r++) {
+      for (int val : list) {
+        sum += val;
+      }
+    }
+    return sum;
+  }
+  // Links new nodes with the given values, in the order of the values, but allocates the
+  // nodes in random order.
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  private static ListNode<Integer> shuffled(List<Integer> values, Random rand) {
+    List<Integer> order = new ArrayList<>(values.size());
+    for (int k = 0; k < values.size(); k++) {
+      order.add(k);
+    }
+    Collections.shuffle(order, rand);
+    List<ListNode<Integer>> nodes = new ArrayList<>(Collections.nCopies(values.size(), null));
+    for (int k : order) {
+      nodes.set(k, new ListNode<>(values.get(k)));
+    }
+    for (int k = 1; k < nodes.size(); k++) {
+      nodes.get(k - 1).next = nodes.get(k);
+    }
+    return nodes.get(0);
+  }
+}
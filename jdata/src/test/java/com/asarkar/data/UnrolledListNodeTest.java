@@ -0,0 +1,121 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import com.asarkar.junit.IterableConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class UnrolledListNodeTest {
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      textBlock = """
+    [] | 1
+    [1] | 2
+    [1, 2] | 2
+    [1, 2, 3, 4, 5] | 2
+    [1, 2, 3, 4, 5] | 32
+      """)
+  void testConversions(@ConvertWith(IterableConverter.class) List<Integer> nums, int capacity) {
+    UnrolledListNode<Integer> head = UnrolledListNode.fromIterable(nums, capacity);
+    if (nums.isEmpty()) {
+      assertThat(head).isNull();
+    } else {
+      assertThat(head).isNotNull();
+      assertThat(head).containsExactlyElementsOf(nums);
+      for (UnrolledListNode<Integer> node = head; node.next() != null; node = node.next()) {
+        assertThat(node.size()).isEqualTo(capacity);
+      }
+    }
+    assertThat(UnrolledListNode.toList(head)).isEqualTo(nums);
+
+    ListNode<Integer> listNode = UnrolledListNode.toListNode(head);
+    assertThat(ListNode.stream(listNode).collect(Collectors.toList())).isEqualTo(nums);
+    assertThat(UnrolledListNode.toList(UnrolledListNode.fromListNode(listNode))).isEqualTo(nums);
+  }
+
+  @Test
+  void testSplitAndMerge() {
+    List<Integer> nums = IntStream.rangeClosed(1, 10).boxed().toList();
+    UnrolledListNode<Integer> head = UnrolledListNode.fromIterable(nums, 8);
+    assertThat(head.size()).isEqualTo(8);
+    assertThat(head.mergeNext()).isFalse();
+
+    UnrolledListNode<Integer> second = head.split();
+    assertThat(head).hasToString("[1, 2, 3, 4]");
+    assertThat(second).hasToString("[5, 6, 7, 8]");
+    assertThat(second.next()).hasToString("[9, 10]");
+    assertThat(UnrolledListNode.toList(head)).isEqualTo(nums);
+
+    assertThat(second.mergeNext()).isTrue();
+    assertThat(second).hasToString("[5, 6, 7, 8, 9, 10]");
+    assertThat(second.next()).isNull();
+    assertThat(second.mergeNext()).isFalse();
+    assertThat(head.mergeNext()).isFalse();
+    assertThat(UnrolledListNode.toList(head)).isEqualTo(nums);
+  }
+
+  @Test
+  void testAppendToMergedNode() {
+    UnrolledListNode<Integer> head = UnrolledListNode.fromIterable(List.of(1, 2, 3), 4);
+    UnrolledListNode<Integer> tail = head.split();
+    assertThat(head.mergeNext()).isTrue();
+
+    assertThat(tail.size()).isZero();
+    assertThat(tail.next()).isNull();
+    assertThat(tail.iterator().hasNext()).isFalse();
+    assertThatIllegalStateException().isThrownBy(() -> tail.append(4));
+    assertThat(head.append(4)).isSameAs(head);
+    assertThat(UnrolledListNode.toList(head)).containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  void testAppendAfterSplit() {
+    UnrolledListNode<Integer> head = UnrolledListNode.fromIterable(List.of(1, 2, 3, 4), 4);
+    UnrolledListNode<Integer> tail = head.split();
+    assertThat(tail.next()).isNull();
+    tail = tail.append(5);
+    assertThat(UnrolledListNode.toList(head)).containsExactly(1, 2, 3, 4, 5);
+
+    // Appending to the node that was split inserts values before the ones that were moved.
+    assertThat(head.append(0)).isSameAs(head);
+    assertThat(UnrolledListNode.toList(head)).containsExactly(1, 2, 0, 3, 4, 5);
+    assertThat(tail.append(6)).isSameAs(tail);
+    assertThat(UnrolledListNode.toList(head)).containsExactly(1, 2, 0, 3, 4, 5, 6);
+  }
+
+  @Test
+  void testAppend() {
+    UnrolledListNode<Integer> head = new UnrolledListNode<>(3);
+    UnrolledListNode<Integer> tail = head;
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      tail = tail.append(i);
+      expected.add(i);
+      assertThat(tail.get(tail.size() - 1)).isEqualTo(i);
+    }
+    assertThat(tail.next()).isNull();
+    assertThat(head).containsExactlyElementsOf(expected);
+
+    // Appending to a full node in the middle inserts a new node after it.
+    assertThat(head.append(-1).next()).isNotNull();
+    assertThat(UnrolledListNode.toList(head)).startsWith(0, 1, 2, -1, 3);
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new UnrolledListNode<>(0));
+    UnrolledListNode<Integer> node = new UnrolledListNode<>();
+    assertThat(node.capacity()).isEqualTo(32);
+    assertThat(node.iterator().hasNext()).isFalse();
+  }
+}
@@ -0,0 +1,128 @@
+package com.asarkar.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+class VersionedFenwickTreeTest {
+  private static final int LOOP_LIMIT = 1000;
+  private static final int THREADS = 8;
+
+  private final Random rand = new Random();
+
+  /*
+  Takes a snapshot after every random update, and verifies that every
+  snapshot still answers queries with the values at the time it was taken.
+   */
+  @RepeatedTest(value = LOOP_LIMIT / 10, failureThreshold = 1)
+  void testSnapshotsAreImmutable(RepetitionInfo repInfo) {
+    int n = repInfo.getCurrentRepetition();
+    int[] arr = IntStream.range(0, n).map(i -> randInt()).toArray();
+    VersionedFenwickTree tree = new VersionedFenwickTree(arr);
+    List<int[]> versions = new ArrayList<>();
+    List<VersionedFenwickTree.Snapshot> snapshots = new ArrayList<>();
+
+    for (int j = 0; j < LOOP_LIMIT / 10; j++) {
+      versions.add(arr.clone());
+      snapshots.add(tree.snapshot());
+
+      int idx = rand.nextInt(1, n + 1);
+      int val = randInt();
+      if (rand.nextBoolean()) {
+        arr[idx - 1] += val;
+        tree.add(idx, val);
+      } else {
+        arr[idx - 1] = val;
+        tree.set(idx, val);
+      }
+      doRandomRangeQuery(arr, tree.snapshot());
+      assertThat(tree.query(n)).isEqualTo(IntStream.of(arr).sum());
+    }
+    for (int j = 0; j < versions.size(); j++) {
+      doRandomRangeQuery(versions.get(j), snapshots.get(j));
+    }
+  }
+
+  /*
+  Every thread adds 1 to every index repeatedly, while taking snapshots;
+  a snapshot must always be a consistent version, in which the total
+  equals the sum of the individual values.
+   */
+  @Test
+  void testConcurrentAdd() throws Exception {
+    int n = 64;
+    VersionedFenwickTree tree = new VersionedFenwickTree(n);
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int loop = 0; loop < LOOP_LIMIT / 10; loop++) {
+                    for (int i = 1; i <= n; i++) {
+                      tree.add(i, 1);
+                    }
+                    VersionedFenwickTree.Snapshot snapshot = tree.snapshot();
+                    int sum = IntStream.rangeClosed(1, n).map(i -> snapshot.queryRange(i, i)).sum();
+                    assertThat(snapshot.query(n)).isEqualTo(sum);
+                  }
+                }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(tree.query(n)).isEqualTo(THREADS * LOOP_LIMIT / 10 * n);
+  }
+
+  @Test
+  void testToString() {
+    VersionedFenwickTree tree = new VersionedFenwickTree(new int[] {1, 0, 3});
+    tree.set(1, 0);
+    tree.add(2, 2);
+    assertThat(tree).hasToString("[0, 2, 3]");
+  }
+
+  @Test
+  void testIllegalArguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new VersionedFenwickTree(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new VersionedFenwickTree(-1));
+
+    VersionedFenwickTree tree = new VersionedFenwickTree(1);
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.query(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.queryRange(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.add(2, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.set(-1, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> tree.snapshot().query(0));
+  }
+
+  private void doRandomRangeQuery(int[] arr, VersionedFenwickTree.Snapshot snapshot) {
+    int n = arr.length;
+    int lo = rand.nextInt(1, n + 1);
+    int hi = rand.nextInt(lo, n + 1);
+
+    int expected = IntStream.rangeClosed(lo, hi).map(i -> arr[i - 1]).sum();
+    assertThat(snapshot.queryRange(lo, hi)).isEqualTo(expected);
+  }
+
+  private int randInt() {
+    return rand.nextInt(-1000, 3000);
+  }
+}